@@ -0,0 +1,99 @@
+package com.nmg.mp.support.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import com.nmg.mp.support.service.impl.MPAsyncServiceImpl;
+import com.nmg.mp.support.toolkit.ExecutorUtils;
+
+/**
+ * 类AsyncExecutorBenchmark.java的实现描述：异步查询扇出基准测试，对比有界平台线程池与虚拟线程执行器
+ * <p>
+ * 多个调用线程各自并发发起 {@link #FAN_OUT} 个 selectById，并发上限均为 {@link #MAX_CONCURRENCY}；
+ * 运行时不支持虚拟线程时 virtual 退化为线程池，结果与 platform 相近
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(16)
+@Fork(1)
+public class AsyncExecutorBenchmark {
+
+	private static final int ROWS = 5000;
+
+	private static final int FAN_OUT = 16;
+
+	private static final int MAX_CONCURRENCY = 8;
+
+	@Param({ "platform", "virtual" })
+	private String executor;
+
+	private BenchmarkDatabase database;
+
+	private MPAsyncServiceImpl<SampleOrder> asyncService;
+
+	private Long[] ids;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		database = new BenchmarkDatabase("async_" + executor);
+		database.truncate();
+		SampleOrderService service = database.getService();
+		List<SampleOrder> orders = BenchmarkDatabase.orders(ROWS, 0);
+		service.insertBatchValues(orders);
+		ids = new Long[ROWS];
+		for (int i = 0; i < ROWS; i++) {
+			ids[i] = orders.get(i).getId();
+		}
+		if ("virtual".equals(executor)) {
+			asyncService = MPAsyncServiceImpl.withVirtualThreads(service, MAX_CONCURRENCY);
+		} else {
+			asyncService = new MPAsyncServiceImpl<>(service,
+					ExecutorUtils.newBoundedExecutor("benchmark", MAX_CONCURRENCY, 1024));
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		asyncService.getExecutor().shutdown();
+		database.close();
+	}
+
+	@Benchmark
+	public int fanOut() throws Exception {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		List<ListenableFuture<SampleOrder>> futures = new ArrayList<>(FAN_OUT);
+		for (int i = 0; i < FAN_OUT; i++) {
+			futures.add(asyncService.selectById(ids[random.nextInt(ROWS)]));
+		}
+		int found = 0;
+		for (ListenableFuture<SampleOrder> future : futures) {
+			if (null != future.get()) {
+				found++;
+			}
+		}
+		return found;
+	}
+
+}
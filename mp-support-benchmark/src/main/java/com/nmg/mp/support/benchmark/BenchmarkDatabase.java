@@ -0,0 +1,95 @@
+package com.nmg.mp.support.benchmark;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.h2.jdbcx.JdbcConnectionPool;
+
+import com.baomidou.mybatisplus.MybatisConfiguration;
+import com.baomidou.mybatisplus.MybatisSqlSessionTemplate;
+import com.baomidou.mybatisplus.entity.GlobalConfiguration;
+import com.baomidou.mybatisplus.plugins.PaginationInterceptor;
+import com.baomidou.mybatisplus.spring.MybatisSqlSessionFactoryBean;
+
+/**
+ * 类BenchmarkDatabase.java的实现描述：基准测试使用的 H2 内存数据库及 service
+ */
+public class BenchmarkDatabase {
+
+	private final JdbcConnectionPool dataSource;
+
+	private final SampleOrderService service;
+
+	/**
+	 * @param name
+	 *            内存数据库名称，不同基准测试使用不同名称互不影响
+	 */
+	public BenchmarkDatabase(String name) throws Exception {
+		dataSource = JdbcConnectionPool.create("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1", "sa", "");
+		dataSource.setMaxConnections(32);
+		execute("CREATE TABLE IF NOT EXISTS sample_order (id BIGINT PRIMARY KEY, order_no VARCHAR(32), "
+				+ "customer_id BIGINT, amount DECIMAL(12, 2), status INT, create_time TIMESTAMP)");
+		execute("CREATE INDEX IF NOT EXISTS idx_sample_order_no ON sample_order (order_no)");
+
+		MybatisSqlSessionFactoryBean factoryBean = new MybatisSqlSessionFactoryBean();
+		factoryBean.setDataSource(dataSource);
+		MybatisConfiguration configuration = new MybatisConfiguration();
+		configuration.setMapUnderscoreToCamelCase(true);
+		factoryBean.setConfiguration(configuration);
+		GlobalConfiguration globalConfig = new GlobalConfiguration();
+		globalConfig.setDbType("h2");
+		factoryBean.setGlobalConfig(globalConfig);
+		factoryBean.setPlugins(new Interceptor[] { new PaginationInterceptor() });
+		SqlSessionFactory sqlSessionFactory = factoryBean.getObject();
+		sqlSessionFactory.getConfiguration().addMapper(SampleOrderMapper.class);
+		service = new SampleOrderService(
+				new MybatisSqlSessionTemplate(sqlSessionFactory).getMapper(SampleOrderMapper.class));
+	}
+
+	public SampleOrderService getService() {
+		return service;
+	}
+
+	public void close() {
+		dataSource.dispose();
+	}
+
+	public void truncate() throws SQLException {
+		execute("TRUNCATE TABLE sample_order");
+	}
+
+	/**
+	 * <p>
+	 * 生成示例数据，主键由 ID_WORKER 在插入时生成
+	 * </p>
+	 */
+	public static List<SampleOrder> orders(int count, int offset) {
+		List<SampleOrder> orders = new ArrayList<>(count);
+		Date now = new Date();
+		for (int i = 0; i < count; i++) {
+			int n = offset + i;
+			SampleOrder order = new SampleOrder();
+			order.setOrderNo("NO" + n);
+			order.setCustomerId((long) (n % 1000));
+			order.setAmount(BigDecimal.valueOf(n % 10000, 2));
+			order.setStatus(n % 4);
+			order.setCreateTime(now);
+			orders.add(order);
+		}
+		return orders;
+	}
+
+	private void execute(String sql) throws SQLException {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+}
@@ -0,0 +1,77 @@
+package com.nmg.mp.support.benchmark;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * 类InsertBatchBenchmark.java的实现描述：批量插入基准测试，每次调用插入 {@link #ROWS} 行，结果按单行计
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InsertBatchBenchmark {
+
+	private static final int ROWS = 1000;
+
+	@Param({ "insertBatch", "insertBatchValues", "upsertBatch" })
+	private String mode;
+
+	@Param({ "30", "200", "1000" })
+	private int batchSize;
+
+	private BenchmarkDatabase database;
+
+	private int offset;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		database = new BenchmarkDatabase("insert_batch");
+		// H2 以 MySQL 模式运行，upsert 使用 MySQL 方言
+		database.getService().setDbType(com.nmg.mp.generator.config.rules.DbType.MYSQL);
+	}
+
+	@Setup(Level.Iteration)
+	public void truncate() throws Exception {
+		database.truncate();
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.close();
+	}
+
+	@Benchmark
+	@OperationsPerInvocation(ROWS)
+	public boolean insert() {
+		List<SampleOrder> orders = BenchmarkDatabase.orders(ROWS, offset);
+		offset += ROWS;
+		switch (mode) {
+		case "insertBatchValues":
+			// 多值插入按参数个数分批，batchSize 换算为参数上限
+			return database.getService().insertBatchValues(orders, batchSize * 6);
+		case "upsertBatch":
+			return database.getService().upsertBatch(orders, batchSize);
+		default:
+			return database.getService().insertBatch(orders, batchSize);
+		}
+	}
+
+}
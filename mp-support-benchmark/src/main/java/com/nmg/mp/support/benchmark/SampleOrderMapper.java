@@ -0,0 +1,10 @@
+package com.nmg.mp.support.benchmark;
+
+import com.baomidou.mybatisplus.mapper.BaseMapper;
+
+/**
+ * 类SampleOrderMapper.java的实现描述：示例实体 Mapper
+ */
+public interface SampleOrderMapper extends BaseMapper<SampleOrder> {
+
+}
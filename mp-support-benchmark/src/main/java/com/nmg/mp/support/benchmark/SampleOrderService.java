@@ -0,0 +1,14 @@
+package com.nmg.mp.support.benchmark;
+
+import com.nmg.mp.support.service.impl.MPServiceImpl;
+
+/**
+ * 类SampleOrderService.java的实现描述：示例实体 service，不经过 Spring 容器直接注入 Mapper
+ */
+public class SampleOrderService extends MPServiceImpl<SampleOrderMapper, SampleOrder> {
+
+	public SampleOrderService(SampleOrderMapper mapper) {
+		this.baseMapper = mapper;
+	}
+
+}
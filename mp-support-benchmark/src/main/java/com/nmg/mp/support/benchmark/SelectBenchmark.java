@@ -0,0 +1,124 @@
+package com.nmg.mp.support.benchmark;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.baomidou.mybatisplus.mapper.EntityWrapper;
+import com.baomidou.mybatisplus.plugins.Page;
+import com.nmg.mp.support.service.KeysetPage;
+
+/**
+ * 类SelectBenchmark.java的实现描述：查询基准测试，表中预置 {@link #ROWS} 行
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SelectBenchmark {
+
+	private static final int ROWS = 20000;
+
+	private static final int PAGE_SIZE = 20;
+
+	private BenchmarkDatabase database;
+
+	private SampleOrderService service;
+
+	private Long[] ids;
+
+	@Setup(Level.Trial)
+	public void setUp() throws Exception {
+		database = new BenchmarkDatabase("select");
+		database.truncate();
+		service = database.getService();
+		List<SampleOrder> orders = BenchmarkDatabase.orders(ROWS, 0);
+		service.insertBatchValues(orders);
+		ids = new Long[ROWS];
+		for (int i = 0; i < ROWS; i++) {
+			ids[i] = orders.get(i).getId();
+		}
+	}
+
+	@TearDown(Level.Trial)
+	public void tearDown() {
+		database.close();
+	}
+
+	@Benchmark
+	public SampleOrder selectById() {
+		return service.selectById(ids[ThreadLocalRandom.current().nextInt(ROWS)]);
+	}
+
+	@Benchmark
+	public List<SampleOrder> selectBatchIds() {
+		int from = ThreadLocalRandom.current().nextInt(ROWS - 100);
+		List<Serializable> idList = new ArrayList<>(100);
+		for (int i = from; i < from + 100; i++) {
+			idList.add(ids[i]);
+		}
+		return service.selectBatchIds(idList);
+	}
+
+	@Benchmark
+	public SampleOrder selectOne() {
+		return service.selectOne(
+				new EntityWrapper<SampleOrder>().eq("order_no", "NO" + ThreadLocalRandom.current().nextInt(ROWS)));
+	}
+
+	@Benchmark
+	public SampleOrder selectFirst() {
+		return service.selectFirst(
+				new EntityWrapper<SampleOrder>().eq("customer_id", ThreadLocalRandom.current().nextInt(1000)));
+	}
+
+	@Benchmark
+	public Page<SampleOrder> selectPage() {
+		int pages = ROWS / PAGE_SIZE;
+		return service.selectPage(new Page<SampleOrder>(1 + ThreadLocalRandom.current().nextInt(pages), PAGE_SIZE),
+				new EntityWrapper<SampleOrder>().orderBy("id"));
+	}
+
+	/**
+	 * 深翻页：OFFSET 方式，与 {@link #selectKeysetPageDeep()} 对比
+	 */
+	@Benchmark
+	public Page<SampleOrder> selectPageDeep() {
+		Page<SampleOrder> page = new Page<>(ROWS / PAGE_SIZE - 1, PAGE_SIZE);
+		page.setSearchCount(false);
+		return service.selectPage(page, new EntityWrapper<SampleOrder>().orderBy("id"));
+	}
+
+	/**
+	 * 深翻页：游标方式
+	 */
+	@Benchmark
+	public KeysetPage<SampleOrder> selectKeysetPageDeep() {
+		KeysetPage<SampleOrder> page = new KeysetPage<>(PAGE_SIZE);
+		page.setLastKey(sortedIdAt(ROWS - 2 * PAGE_SIZE));
+		return service.selectKeysetPage(page, null);
+	}
+
+	private Long sortedIdAt(int index) {
+		// ID_WORKER 生成的主键按插入顺序递增
+		return ids[index];
+	}
+
+}
@@ -0,0 +1,44 @@
+package com.nmg.mp.support.metrics;
+
+/**
+ * 类MetricsRegistry.java的实现描述：mp service 操作指标的记录接口
+ * <p>
+ * 每次 service 操作结束后调用一次，实现类可桥接到 Micrometer、Dropwizard 等指标系统；
+ * 调用发生在业务线程上，实现应尽量轻量且线程安全
+ * </p>
+ */
+public interface MetricsRegistry {
+
+	/**
+	 * <p>
+	 * 记录一次操作
+	 * </p>
+	 *
+	 * @param entityClass
+	 *            实体类
+	 * @param operation
+	 *            操作名称（IMPService 方法名）
+	 * @param elapsedNanos
+	 *            耗时（纳秒）
+	 * @param rows
+	 *            行数：批量写入为传入记录数，其余写操作为影响行数，查询为返回行数（selectCount 为统计结果）
+	 * @param success
+	 *            是否成功
+	 */
+	void record(Class<?> entityClass, String operation, long elapsedNanos, long rows, boolean success);
+
+	/**
+	 * <p>
+	 * 记录批量写入操作的批次大小（每次 flush 或每条多值语句的行数），与该次操作的 record 一同调用
+	 * </p>
+	 *
+	 * @param entityClass
+	 *            实体类
+	 * @param operation
+	 *            操作名称（IMPService 方法名）
+	 * @param batchSize
+	 *            批次大小
+	 */
+	void recordBatchSize(Class<?> entityClass, String operation, int batchSize);
+
+}
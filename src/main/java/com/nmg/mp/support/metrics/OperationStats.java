@@ -0,0 +1,175 @@
+package com.nmg.mp.support.metrics;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 类OperationStats.java的实现描述：单个操作的统计：次数、失败次数、行数、批次大小及耗时分布
+ * <p>
+ * 耗时按对数线性分桶记录（每个 2 的幂区间 16 个子桶，相对误差约 6%），记录时无锁，可计算任意百分位
+ * </p>
+ */
+public class OperationStats {
+
+	private static final int SUB_BUCKET_BITS = 4;
+
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+
+	private static final int BUCKET_COUNT = (64 - SUB_BUCKET_BITS) * SUB_BUCKET_COUNT;
+
+	private final String name;
+
+	private final AtomicLong count = new AtomicLong();
+
+	private final AtomicLong errorCount = new AtomicLong();
+
+	private final AtomicLong rows = new AtomicLong();
+
+	private final AtomicLong totalNanos = new AtomicLong();
+
+	private final AtomicLong maxNanos = new AtomicLong();
+
+	private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+	private final AtomicLong batchCount = new AtomicLong();
+
+	private final AtomicLong batchSizeTotal = new AtomicLong();
+
+	private volatile int lastBatchSize;
+
+	public OperationStats(String name) {
+		this.name = name;
+	}
+
+	public void record(long elapsedNanos, long rows, boolean success) {
+		long nanos = Math.max(0, elapsedNanos);
+		count.incrementAndGet();
+		if (!success) {
+			errorCount.incrementAndGet();
+		}
+		this.rows.addAndGet(rows);
+		totalNanos.addAndGet(nanos);
+		long max;
+		while (nanos > (max = maxNanos.get()) && !maxNanos.compareAndSet(max, nanos)) {
+			// 并发更新最大值，重试
+		}
+		buckets.incrementAndGet(bucketIndex(nanos));
+	}
+
+	/**
+	 * <p>
+	 * 记录批量写入操作的批次大小
+	 * </p>
+	 */
+	public void recordBatchSize(int batchSize) {
+		batchCount.incrementAndGet();
+		batchSizeTotal.addAndGet(batchSize);
+		lastBatchSize = batchSize;
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	public long getCount() {
+		return count.get();
+	}
+
+	public long getErrorCount() {
+		return errorCount.get();
+	}
+
+	public long getRows() {
+		return rows.get();
+	}
+
+	public long getTotalNanos() {
+		return totalNanos.get();
+	}
+
+	public long getMaxNanos() {
+		return maxNanos.get();
+	}
+
+	/**
+	 * 最近一次记录的批次大小，未记录时为 0
+	 */
+	public int getLastBatchSize() {
+		return lastBatchSize;
+	}
+
+	/**
+	 * 记录过的批次大小的平均值，未记录时为 0
+	 */
+	public long getMeanBatchSize() {
+		long n = batchCount.get();
+		return n == 0 ? 0 : batchSizeTotal.get() / n;
+	}
+
+	public long getMeanNanos() {
+		long n = count.get();
+		return n == 0 ? 0 : totalNanos.get() / n;
+	}
+
+	/**
+	 * <p>
+	 * 耗时百分位（纳秒），返回所在分桶的上界
+	 * </p>
+	 *
+	 * @param percentile
+	 *            百分位，如 99.9
+	 * @return long
+	 */
+	public long getPercentileNanos(double percentile) {
+		long total = 0;
+		long[] snapshot = new long[BUCKET_COUNT];
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			snapshot[i] = buckets.get(i);
+			total += snapshot[i];
+		}
+		if (total == 0) {
+			return 0;
+		}
+		long target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * total));
+		long seen = 0;
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += snapshot[i];
+			if (seen >= target) {
+				return Math.min(bucketUpperBound(i), maxNanos.get());
+			}
+		}
+		return maxNanos.get();
+	}
+
+	@Override
+	public String toString() {
+		return name + " {count: " + getCount() + ", errors: " + getErrorCount() + ", rows: " + getRows()
+				+ (batchCount.get() == 0 ? "" : ", batchSize: " + getMeanBatchSize()) + ", mean: "
+				+ micros(getMeanNanos()) + "us, p50: " + micros(getPercentileNanos(50)) + "us, p99: "
+				+ micros(getPercentileNanos(99)) + "us, max: " + micros(getMaxNanos()) + "us}";
+	}
+
+	private static long micros(long nanos) {
+		return TimeUnit.NANOSECONDS.toMicros(nanos);
+	}
+
+	static int bucketIndex(long value) {
+		if (value < SUB_BUCKET_COUNT) {
+			return (int) value;
+		}
+		int shift = 63 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		int subBucket = (int) (value >>> shift) & (SUB_BUCKET_COUNT - 1);
+		return (shift + 1) * SUB_BUCKET_COUNT + subBucket;
+	}
+
+	static long bucketUpperBound(int index) {
+		if (index < SUB_BUCKET_COUNT) {
+			return index;
+		}
+		int shift = index / SUB_BUCKET_COUNT - 1;
+		long subBucket = index % SUB_BUCKET_COUNT;
+		return ((SUB_BUCKET_COUNT + subBucket + 1) << shift) - 1;
+	}
+
+}
@@ -0,0 +1,51 @@
+package com.nmg.mp.support.metrics;
+
+/**
+ * 类ParameterMasker.java的实现描述：慢操作记录中参数值的脱敏策略
+ */
+public interface ParameterMasker {
+
+	/**
+	 * 默认策略：null 及布尔值原样记录，其余值（含手机号、账号等数值）按字符串形式仅保留首尾字符及长度
+	 */
+	ParameterMasker DEFAULT = new ParameterMasker() {
+
+		@Override
+		public Object mask(String name, Object value) {
+			if (null == value || value instanceof Boolean) {
+				return value;
+			}
+			String text = value.toString();
+			int length = text.length();
+			if (length <= 2) {
+				return "**";
+			}
+			return text.charAt(0) + "***" + text.charAt(length - 1) + "(" + length + ")";
+		}
+	};
+
+	/**
+	 * 不脱敏
+	 */
+	ParameterMasker NONE = new ParameterMasker() {
+
+		@Override
+		public Object mask(String name, Object value) {
+			return value;
+		}
+	};
+
+	/**
+	 * <p>
+	 * 脱敏参数值
+	 * </p>
+	 *
+	 * @param name
+	 *            参数名（Wrapper 生成的 MPGENVALn）
+	 * @param value
+	 *            参数值
+	 * @return 记录的值
+	 */
+	Object mask(String name, Object value);
+
+}
@@ -0,0 +1,65 @@
+package com.nmg.mp.support.metrics;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 类SimpleMetricsRegistry.java的实现描述：内存中的指标记录，按“实体类名.操作名”汇总
+ */
+public class SimpleMetricsRegistry implements MetricsRegistry {
+
+	private final ConcurrentMap<String, OperationStats> stats = new ConcurrentHashMap<>();
+
+	@Override
+	public void record(Class<?> entityClass, String operation, long elapsedNanos, long rows, boolean success) {
+		operationStats(entityClass, operation).record(elapsedNanos, rows, success);
+	}
+
+	@Override
+	public void recordBatchSize(Class<?> entityClass, String operation, int batchSize) {
+		operationStats(entityClass, operation).recordBatchSize(batchSize);
+	}
+
+	private OperationStats operationStats(Class<?> entityClass, String operation) {
+		String name = name(entityClass, operation);
+		OperationStats operationStats = stats.get(name);
+		if (null == operationStats) {
+			OperationStats created = new OperationStats(name);
+			operationStats = stats.putIfAbsent(name, created);
+			if (null == operationStats) {
+				operationStats = created;
+			}
+		}
+		return operationStats;
+	}
+
+	/**
+	 * <p>
+	 * 获取指定操作的统计，未记录过时返回 null
+	 * </p>
+	 */
+	public OperationStats getStats(Class<?> entityClass, String operation) {
+		return stats.get(name(entityClass, operation));
+	}
+
+	/**
+	 * <p>
+	 * 全部统计，按名称排序
+	 * </p>
+	 */
+	public Map<String, OperationStats> getAllStats() {
+		return Collections.unmodifiableMap(new TreeMap<>(stats));
+	}
+
+	public void clear() {
+		stats.clear();
+	}
+
+	private static String name(Class<?> entityClass, String operation) {
+		return entityClass.getSimpleName() + "." + operation;
+	}
+
+}
@@ -0,0 +1,99 @@
+package com.nmg.mp.support.metrics;
+
+import java.io.Serializable;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 类SlowOperation.java的实现描述：一次慢操作的记录
+ */
+public class SlowOperation implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * 操作结束时间
+	 */
+	private final Date time;
+	/**
+	 * 实体类
+	 */
+	private final Class<?> entityClass;
+	/**
+	 * 操作名称
+	 */
+	private final String operation;
+	/**
+	 * Wrapper 生成的 SQL 片段，无 Wrapper 时为 null
+	 */
+	private final String sqlSegment;
+	/**
+	 * 脱敏后的参数
+	 */
+	private final Map<String, Object> params;
+	/**
+	 * 耗时（纳秒）
+	 */
+	private final long elapsedNanos;
+	/**
+	 * 行数
+	 */
+	private final long rows;
+	/**
+	 * 是否成功
+	 */
+	private final boolean success;
+
+	public SlowOperation(Date time, Class<?> entityClass, String operation, String sqlSegment,
+			Map<String, Object> params, long elapsedNanos, long rows, boolean success) {
+		this.time = time;
+		this.entityClass = entityClass;
+		this.operation = operation;
+		this.sqlSegment = sqlSegment;
+		this.params = params;
+		this.elapsedNanos = elapsedNanos;
+		this.rows = rows;
+		this.success = success;
+	}
+
+	public Date getTime() {
+		return time;
+	}
+
+	public Class<?> getEntityClass() {
+		return entityClass;
+	}
+
+	public String getOperation() {
+		return operation;
+	}
+
+	public String getSqlSegment() {
+		return sqlSegment;
+	}
+
+	public Map<String, Object> getParams() {
+		return params;
+	}
+
+	public long getElapsedNanos() {
+		return elapsedNanos;
+	}
+
+	public long getRows() {
+		return rows;
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+
+	@Override
+	public String toString() {
+		return String.format("%tF %<tT.%<tL %s.%s %dms rows=%d%s sql=[%s] params=%s", time,
+				entityClass.getSimpleName(), operation, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), rows,
+				success ? "" : " FAILED", null == sqlSegment ? "" : sqlSegment.trim().replaceAll("\\s+", " "), params);
+	}
+
+}
@@ -0,0 +1,149 @@
+package com.nmg.mp.support.metrics;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 类SlowOperationLog.java的实现描述：慢操作记录，超过阈值的操作保存在固定容量的环形缓冲区中，写满后覆盖最早的记录
+ * <p>
+ * 可在多个 service 间共享；仅慢操作会加锁写入，对正常操作无额外开销
+ * </p>
+ */
+public class SlowOperationLog {
+
+	private static final String PARAM_PREFIX = "ew.paramNameValuePairs.";
+
+	private final long thresholdNanos;
+
+	private final SlowOperation[] buffer;
+
+	private ParameterMasker parameterMasker = ParameterMasker.DEFAULT;
+
+	private long total;
+
+	/**
+	 * @param threshold
+	 *            慢操作阈值
+	 * @param unit
+	 *            时间单位
+	 * @param capacity
+	 *            最多保留的记录数
+	 */
+	public SlowOperationLog(long threshold, TimeUnit unit, int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("Error: capacity must be positive");
+		}
+		this.thresholdNanos = unit.toNanos(threshold);
+		this.buffer = new SlowOperation[capacity];
+	}
+
+	public long getThresholdNanos() {
+		return thresholdNanos;
+	}
+
+	public void setParameterMasker(ParameterMasker parameterMasker) {
+		this.parameterMasker = parameterMasker;
+	}
+
+	public boolean isSlow(long elapsedNanos) {
+		return elapsedNanos >= thresholdNanos;
+	}
+
+	/**
+	 * <p>
+	 * 记录操作，未超过阈值时忽略
+	 * </p>
+	 *
+	 * @param entityClass
+	 *            实体类
+	 * @param operation
+	 *            操作名称
+	 * @param sqlSegment
+	 *            SQL 片段
+	 * @param params
+	 *            参数，记录前脱敏
+	 * @param elapsedNanos
+	 *            耗时（纳秒）
+	 * @param rows
+	 *            行数
+	 * @param success
+	 *            是否成功
+	 */
+	public void record(Class<?> entityClass, String operation, String sqlSegment, Map<String, Object> params,
+			long elapsedNanos, long rows, boolean success) {
+		if (!isSlow(elapsedNanos)) {
+			return;
+		}
+		Map<String, Object> masked = null;
+		if (null != params && !params.isEmpty()) {
+			masked = new LinkedHashMap<>(params.size() * 4 / 3 + 1);
+			for (Map.Entry<String, Object> entry : params.entrySet()) {
+				masked.put(entry.getKey(), parameterMasker.mask(entry.getKey(), entry.getValue()));
+			}
+		}
+		if (null != sqlSegment) {
+			// #{ew.paramNameValuePairs.MPGENVAL1} 简化为 #{MPGENVAL1}，与参数名对应
+			sqlSegment = sqlSegment.replace(PARAM_PREFIX, "");
+		}
+		SlowOperation slowOperation = new SlowOperation(new Date(), entityClass, operation, sqlSegment, masked,
+				elapsedNanos, rows, success);
+		synchronized (buffer) {
+			buffer[(int) (total++ % buffer.length)] = slowOperation;
+		}
+	}
+
+	/**
+	 * <p>
+	 * 当前保留的记录，最新的在前
+	 * </p>
+	 */
+	public List<SlowOperation> snapshot() {
+		synchronized (buffer) {
+			int size = (int) Math.min(total, buffer.length);
+			List<SlowOperation> list = new ArrayList<>(size);
+			for (int i = 1; i <= size; i++) {
+				list.add(buffer[(int) ((total - i) % buffer.length)]);
+			}
+			return Collections.unmodifiableList(list);
+		}
+	}
+
+	/**
+	 * <p>
+	 * 累计记录的慢操作数（含已被覆盖的）
+	 * </p>
+	 */
+	public long getTotal() {
+		synchronized (buffer) {
+			return total;
+		}
+	}
+
+	/**
+	 * <p>
+	 * 以文本形式输出当前保留的记录，每行一条，最新的在前
+	 * </p>
+	 */
+	public String dump() {
+		StringBuilder builder = new StringBuilder();
+		for (SlowOperation slowOperation : snapshot()) {
+			builder.append(slowOperation).append('\n');
+		}
+		return builder.toString();
+	}
+
+	public void clear() {
+		synchronized (buffer) {
+			for (int i = 0; i < buffer.length; i++) {
+				buffer[i] = null;
+			}
+			total = 0;
+		}
+	}
+
+}
@@ -0,0 +1,39 @@
+package com.nmg.mp.support.service;
+
+/**
+ * 类Aggregate.java的实现描述：聚合函数
+ */
+public enum Aggregate {
+
+	SUM("SUM(%s)"),
+
+	MIN("MIN(%s)"),
+
+	MAX("MAX(%s)"),
+
+	AVG("AVG(%s)"),
+
+	COUNT("COUNT(%s)"),
+
+	COUNT_DISTINCT("COUNT(DISTINCT %s)");
+
+	private final String format;
+
+	Aggregate(String format) {
+		this.format = format;
+	}
+
+	/**
+	 * <p>
+	 * 聚合表达式
+	 * </p>
+	 *
+	 * @param column
+	 *            列名或表达式
+	 * @return String
+	 */
+	public String sql(String column) {
+		return String.format(format, column);
+	}
+
+}
@@ -0,0 +1,81 @@
+package com.nmg.mp.support.service;
+
+/**
+ * 类ChunkOptions.java的实现描述：分批删除、修改的参数
+ * <p>
+ * 每批按主键顺序选取最多 chunkSize 行，单独提交后按 pauseMillis + 本批耗时 × throttleRatio 暂停，
+ * 缩短锁持有时间并给复制、其他事务留出空闲
+ * </p>
+ */
+public class ChunkOptions {
+
+	/**
+	 * 每批最大行数
+	 */
+	private int chunkSize = 1000;
+	/**
+	 * 每批之间的固定暂停时间（毫秒）
+	 */
+	private long pauseMillis;
+	/**
+	 * 按本批耗时比例暂停，如 1.0 表示执行与暂停时间各占一半
+	 */
+	private double throttleRatio;
+	/**
+	 * 进度回调
+	 */
+	private ChunkProgressListener listener;
+
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	public ChunkOptions setChunkSize(int chunkSize) {
+		if (chunkSize < 1) {
+			throw new IllegalArgumentException("Error: chunkSize must be positive");
+		}
+		this.chunkSize = chunkSize;
+		return this;
+	}
+
+	public long getPauseMillis() {
+		return pauseMillis;
+	}
+
+	public ChunkOptions setPauseMillis(long pauseMillis) {
+		this.pauseMillis = pauseMillis;
+		return this;
+	}
+
+	public double getThrottleRatio() {
+		return throttleRatio;
+	}
+
+	public ChunkOptions setThrottleRatio(double throttleRatio) {
+		this.throttleRatio = throttleRatio;
+		return this;
+	}
+
+	public ChunkProgressListener getListener() {
+		return listener;
+	}
+
+	public ChunkOptions setListener(ChunkProgressListener listener) {
+		this.listener = listener;
+		return this;
+	}
+
+	/**
+	 * <p>
+	 * 本批执行后的暂停时间（毫秒）
+	 * </p>
+	 *
+	 * @param elapsedNanos
+	 *            本批耗时（纳秒）
+	 * @return long
+	 */
+	public long pauseMillis(long elapsedNanos) {
+		return pauseMillis + (long) (elapsedNanos * throttleRatio / 1000000);
+	}
+
+}
@@ -0,0 +1,23 @@
+package com.nmg.mp.support.service;
+
+/**
+ * 类ChunkProgressListener.java的实现描述：分批删除、修改的进度回调
+ */
+public interface ChunkProgressListener {
+
+	/**
+	 * <p>
+	 * 每批提交后调用，在调用线程执行
+	 * </p>
+	 *
+	 * @param chunk
+	 *            批次序号，从 1 开始
+	 * @param rows
+	 *            本批影响行数
+	 * @param totalRows
+	 *            累计影响行数
+	 * @return 是否继续执行下一批，返回 false 时提前结束
+	 */
+	boolean onChunk(int chunk, int rows, long totalRows);
+
+}
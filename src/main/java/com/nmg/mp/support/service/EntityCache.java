@@ -0,0 +1,178 @@
+package com.nmg.mp.support.service;
+
+import java.io.Serializable;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.BeanUtils;
+
+/**
+ * 类EntityCache.java的实现描述：按主键缓存实体的本地缓存，容量有限（LRU 淘汰）并支持过期时间
+ * <p>
+ * 以主键的字符串形式作为 key，避免 Integer / Long / String 主键值不一致；读取时返回缓存实体的浅拷贝，
+ * 调用方修改返回对象不会影响缓存
+ * </p>
+ */
+public class EntityCache<T> {
+
+	private final int maxSize;
+
+	private final long ttlMillis;
+
+	private final LinkedHashMap<String, Entry<T>> entries;
+
+	private final AtomicLong hitCount = new AtomicLong();
+
+	private final AtomicLong missCount = new AtomicLong();
+
+	private final AtomicLong evictionCount = new AtomicLong();
+
+	/**
+	 * @param maxSize
+	 *            最大缓存条数
+	 * @param ttl
+	 *            过期时间，小于等于 0 表示不过期
+	 * @param unit
+	 *            时间单位
+	 */
+	public EntityCache(int maxSize, long ttl, TimeUnit unit) {
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Error: maxSize must be positive");
+		}
+		this.maxSize = maxSize;
+		this.ttlMillis = ttl > 0 ? unit.toMillis(ttl) : 0;
+		this.entries = new LinkedHashMap<String, Entry<T>>(16, 0.75f, true) {
+
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry<T>> eldest) {
+				if (size() > EntityCache.this.maxSize) {
+					evictionCount.incrementAndGet();
+					return true;
+				}
+				return false;
+			}
+		};
+	}
+
+	/**
+	 * <p>
+	 * 获取缓存实体，不存在或已过期时返回 null
+	 * </p>
+	 *
+	 * @param id
+	 *            主键ID
+	 * @return T
+	 */
+	public T get(Serializable id) {
+		String key = key(id);
+		Entry<T> entry;
+		synchronized (entries) {
+			entry = entries.get(key);
+			if (null != entry && entry.isExpired()) {
+				entries.remove(key);
+				evictionCount.incrementAndGet();
+				entry = null;
+			}
+		}
+		if (null == entry) {
+			missCount.incrementAndGet();
+			return null;
+		}
+		hitCount.incrementAndGet();
+		return copy(entry.value);
+	}
+
+	public void put(Serializable id, T entity) {
+		if (null == id || null == entity) {
+			return;
+		}
+		Entry<T> entry = new Entry<>(copy(entity), ttlMillis > 0 ? System.currentTimeMillis() + ttlMillis : 0);
+		synchronized (entries) {
+			entries.put(key(id), entry);
+		}
+	}
+
+	public void evict(Serializable id) {
+		if (null == id) {
+			return;
+		}
+		synchronized (entries) {
+			entries.remove(key(id));
+		}
+	}
+
+	public void clear() {
+		synchronized (entries) {
+			entries.clear();
+		}
+	}
+
+	public int size() {
+		synchronized (entries) {
+			return entries.size();
+		}
+	}
+
+	public int getMaxSize() {
+		return maxSize;
+	}
+
+	public long getHitCount() {
+		return hitCount.get();
+	}
+
+	public long getMissCount() {
+		return missCount.get();
+	}
+
+	/**
+	 * 因容量或过期被淘汰的条数，不含写操作触发的失效
+	 */
+	public long getEvictionCount() {
+		return evictionCount.get();
+	}
+
+	public double getHitRate() {
+		long hits = hitCount.get();
+		long total = hits + missCount.get();
+		return total == 0 ? 0 : (double) hits / total;
+	}
+
+	@Override
+	public String toString() {
+		return "EntityCache {size: " + size() + ", maxSize: " + maxSize + ", hitCount: " + getHitCount()
+				+ ", missCount: " + getMissCount() + ", evictionCount: " + getEvictionCount() + "}";
+	}
+
+	private static String key(Serializable id) {
+		return String.valueOf(id);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T copy(T entity) {
+		T copy = (T) BeanUtils.instantiateClass(entity.getClass());
+		BeanUtils.copyProperties(entity, copy);
+		return copy;
+	}
+
+	private static class Entry<T> {
+
+		private final T value;
+
+		private final long expireAt;
+
+		Entry(T value, long expireAt) {
+			this.value = value;
+			this.expireAt = expireAt;
+		}
+
+		boolean isExpired() {
+			return expireAt > 0 && System.currentTimeMillis() >= expireAt;
+		}
+	}
+
+}
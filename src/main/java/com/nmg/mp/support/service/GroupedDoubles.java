@@ -0,0 +1,71 @@
+package com.nmg.mp.support.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 类GroupedDoubles.java的实现描述：分组聚合结果，分组值与 double 聚合值按下标一一对应，按分组值升序排列
+ * <p>
+ * 分组值为 JDBC 驱动返回的类型，按分组值查找时需使用相同类型
+ * </p>
+ */
+public class GroupedDoubles {
+
+	private final List<Object> keys;
+
+	private final double[] values;
+
+	private final Map<Object, Integer> positions;
+
+	public GroupedDoubles(List<Object> keys, double[] values) {
+		if (keys.size() != values.length) {
+			throw new IllegalArgumentException("Error: keys and values must have the same size");
+		}
+		this.keys = Collections.unmodifiableList(keys);
+		this.values = values;
+		this.positions = new HashMap<>(values.length * 4 / 3 + 1);
+		for (int i = 0; i < values.length; i++) {
+			positions.put(keys.get(i), i);
+		}
+	}
+
+	public int size() {
+		return values.length;
+	}
+
+	public Object getKey(int index) {
+		return keys.get(index);
+	}
+
+	public double getValue(int index) {
+		return values[index];
+	}
+
+	public List<Object> getKeys() {
+		return keys;
+	}
+
+	public double[] getValues() {
+		return Arrays.copyOf(values, values.length);
+	}
+
+	/**
+	 * <p>
+	 * 分组值对应的聚合值
+	 * </p>
+	 *
+	 * @param key
+	 *            分组值
+	 * @param defaultValue
+	 *            分组不存在时返回的值
+	 * @return double
+	 */
+	public double get(Object key, double defaultValue) {
+		Integer i = positions.get(key);
+		return null == i ? defaultValue : values[i];
+	}
+
+}
@@ -0,0 +1,110 @@
+package com.nmg.mp.support.service;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.util.concurrent.ListenableFuture;
+
+import com.baomidou.mybatisplus.mapper.Wrapper;
+import com.baomidou.mybatisplus.plugins.Page;
+
+/**
+ * 类IMPAsyncService.java的实现描述：mp service 异步查询接口
+ * <p>
+ * 方法在独立线程池中执行并立即返回 {@link ListenableFuture}，用于并行发起多个相互独立的查询。
+ * 异步执行不参与调用方的事务，线程池饱和时返回失败的 future
+ * </p>
+ */
+public interface IMPAsyncService<T> {
+
+	/**
+	 * <p>
+	 * 根据 ID 查询
+	 * </p>
+	 *
+	 * @param id
+	 *            主键ID
+	 * @return ListenableFuture<T>
+	 */
+	ListenableFuture<T> selectById(Serializable id);
+
+	/**
+	 * <p>
+	 * 查询（根据ID 批量查询）
+	 * </p>
+	 *
+	 * @param idList
+	 *            主键ID列表
+	 * @return ListenableFuture<List<T>>
+	 */
+	ListenableFuture<List<T>> selectBatchIds(Collection<? extends Serializable> idList);
+
+	/**
+	 * <p>
+	 * 根据 Wrapper，查询一条记录
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体对象
+	 * @return ListenableFuture<T>
+	 */
+	ListenableFuture<T> selectOne(Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 根据 Wrapper，查询第一条记录
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体对象
+	 * @return ListenableFuture<T>
+	 */
+	ListenableFuture<T> selectFirst(Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 根据 Wrapper 条件，判断是否存在记录
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体对象
+	 * @return ListenableFuture<Boolean>
+	 */
+	ListenableFuture<Boolean> exists(Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 根据 Wrapper 条件，查询总记录数
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体对象
+	 * @return ListenableFuture<Integer>
+	 */
+	ListenableFuture<Integer> selectCount(Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 查询列表
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @return ListenableFuture<List<T>>
+	 */
+	ListenableFuture<List<T>> selectList(Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 翻页查询
+	 * </p>
+	 *
+	 * @param page
+	 *            翻页对象
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @return ListenableFuture<Page<T>>
+	 */
+	ListenableFuture<Page<T>> selectPage(Page<T> page, Wrapper<T> wrapper);
+}
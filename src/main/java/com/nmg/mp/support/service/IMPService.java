@@ -3,6 +3,10 @@ package com.nmg.mp.support.service;
 import java.io.Serializable;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
 
 import com.baomidou.mybatisplus.mapper.Wrapper;
 import com.baomidou.mybatisplus.plugins.Page;
@@ -48,6 +52,120 @@ public interface IMPService<T> {
 	 */
 	boolean insertBatch(List<T> entityList, int batchSize);
 
+	/**
+	 * <p>
+	 * 插入（批量），每批拼装为一条多值 INSERT ... VALUES (...),(...) 语句，该方法不适合 Oracle
+	 * </p>
+	 *
+	 * @param entityList
+	 *            实体对象列表
+	 * @return boolean
+	 */
+	boolean insertBatchValues(List<T> entityList);
+
+	/**
+	 * <p>
+	 * 插入（批量），每批拼装为一条多值 INSERT ... VALUES (...),(...) 语句，该方法不适合 Oracle
+	 * </p>
+	 * <p>
+	 * 所有行插入全部字段（同 insertAllColumn），自增主键不会回填到实体
+	 * </p>
+	 *
+	 * @param entityList
+	 *            实体对象列表
+	 * @param maxParameters
+	 *            单条语句允许的最大预编译参数个数，用于控制每批行数及报文大小
+	 * @return boolean
+	 */
+	boolean insertBatchValues(List<T> entityList, int maxParameters);
+
+	/**
+	 * <p>
+	 * 并行插入（批量），按 partitionSize 拆分分区，每个分区在独立的连接上执行并独立提交
+	 * </p>
+	 * <p>
+	 * 任一分区失败时尚未开始的分区不再执行，已提交的分区不会回滚
+	 * </p>
+	 *
+	 * @param entityList
+	 *            实体对象列表
+	 * @param partitionSize
+	 *            分区大小
+	 * @return ParallelBatchResult
+	 */
+	ParallelBatchResult insertBatchParallel(List<T> entityList, int partitionSize);
+
+	/**
+	 * <p>
+	 * 并行插入（批量），按 partitionSize 拆分分区，每个分区在独立的连接上执行
+	 * </p>
+	 * <p>
+	 * 非事务方法，各分区独立提交，不参与调用方的事务。bestEffort 为 false 时分区整体提交，任一分区失败后
+	 * 尚未开始的分区不再执行；为 true 时每批次（batchSize）单独提交，失败批次回滚后继续执行，适用于 ETL 场景
+	 * </p>
+	 * <p>
+	 * 分区只在线程池中执行，不会在调用线程执行；线程池饱和时等待已提交的分区完成后再提交，若本次调用没有已提交的分区
+	 * （线程池被其他任务占满），则退避后重新提交，直到被接受；仅线程池已关闭时分区失败
+	 * </p>
+	 *
+	 * @param entityList
+	 *            实体对象列表
+	 * @param partitionSize
+	 *            分区大小
+	 * @param batchSize
+	 *            插入批次数量
+	 * @param bestEffort
+	 *            是否尽力而为模式
+	 * @return ParallelBatchResult
+	 */
+	ParallelBatchResult insertBatchParallel(List<T> entityList, int partitionSize, int batchSize, boolean bestEffort);
+
+	/**
+	 * <p>
+	 * 按主键插入或更新（批量），使用数据库原生语法单条语句完成
+	 * </p>
+	 *
+	 * @param entityList
+	 *            实体对象列表
+	 * @return boolean
+	 */
+	boolean upsertBatch(List<T> entityList);
+
+	/**
+	 * <p>
+	 * 按主键插入或更新（批量），每批拼装为一条数据库原生语句：MySQL ON DUPLICATE KEY UPDATE、
+	 * PostgreSQL ON CONFLICT、Oracle / SQL Server MERGE
+	 * </p>
+	 * <p>
+	 * 写入全部字段（同 insertAllColumn），更新时不覆盖插入填充字段
+	 * </p>
+	 * <p>
+	 * 自增主键（IdType.AUTO）主键为空的行由数据库生成主键；PostgreSQL 不支持自增主键
+	 * </p>
+	 *
+	 * @param entityList
+	 *            实体对象列表
+	 * @param batchSize
+	 *            每条语句包含的行数，同时受最大参数个数限制
+	 * @return boolean
+	 */
+	boolean upsertBatch(List<T> entityList, int batchSize);
+
+	/**
+	 * <p>
+	 * 批量导入：MySQL LOAD DATA LOCAL INFILE、PostgreSQL COPY FROM STDIN，适用于百万级以上的数据导入
+	 * </p>
+	 * <p>
+	 * 实体按表的列顺序边编码边发送，不生成临时文件；与 insert 一样生成主键并执行插入填充，
+	 * 写入全部字段（同 insertAllColumn）
+	 * </p>
+	 *
+	 * @param entities
+	 *            实体对象，可为按需生成的 Iterable
+	 * @return 导入行数
+	 */
+	long bulkLoad(Iterable<T> entities);
+
 	/**
 	 * <p>
 	 * 根据 ID 删除
@@ -70,10 +188,29 @@ public interface IMPService<T> {
 	 */
 	boolean delete(Wrapper<T> wrapper);
 
+	/**
+	 * <p>
+	 * 根据 wrapper 条件分批删除，每批按主键顺序选取 chunkSize 行后按主键删除并单独提交
+	 * </p>
+	 * <p>
+	 * 不能在事务中调用；wrapper 不能包含 orderBy、groupBy、having、last 等非条件部分
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @param options
+	 *            分批参数
+	 * @return long 影响总行数
+	 */
+	long deleteChunked(Wrapper<T> wrapper, ChunkOptions options);
+
 	/**
 	 * <p>
 	 * 删除（根据ID 批量删除）
 	 * </p>
+	 * <p>
+	 * 主键数量较多时按批拆分为多条 IN 语句，在同一事务中执行
+	 * </p>
 	 *
 	 * @param idList
 	 *            主键ID列表
@@ -81,6 +218,19 @@ public interface IMPService<T> {
 	 */
 	boolean deleteBatchIds(Collection<? extends Serializable> idList);
 
+	/**
+	 * <p>
+	 * 删除（根据ID 批量删除），逐条 deleteById 语句以 JDBC 批量方式执行，每 batchSize 条刷新一次
+	 * </p>
+	 *
+	 * @param idList
+	 *            主键ID列表
+	 * @param batchSize
+	 *            删除批次数量
+	 * @return int 影响总行数
+	 */
+	int deleteBatchIds(Collection<? extends Serializable> idList, int batchSize);
+
 	/**
 	 * <p>
 	 * 根据 ID 选择修改
@@ -92,6 +242,30 @@ public interface IMPService<T> {
 	 */
 	boolean updateById(T entity);
 
+	/**
+	 * <p>
+	 * 根据 ID 批量选择修改
+	 * </p>
+	 *
+	 * @param entityList
+	 *            实体对象列表
+	 * @return int 影响总行数
+	 */
+	int updateBatchById(List<T> entityList);
+
+	/**
+	 * <p>
+	 * 根据 ID 批量选择修改，逐条 updateById 语句以 JDBC 批量方式执行
+	 * </p>
+	 *
+	 * @param entityList
+	 *            实体对象列表
+	 * @param batchSize
+	 *            更新批次数量
+	 * @return int 影响总行数
+	 */
+	int updateBatchById(List<T> entityList, int batchSize);
+
 	/**
 	 * <p>
 	 * 根据 whereEntity 条件，更新记录
@@ -105,6 +279,25 @@ public interface IMPService<T> {
 	 */
 	boolean updateByWrapper(T entity, Wrapper<T> wrapper);
 
+	/**
+	 * <p>
+	 * 根据 wrapper 条件分批更新，每批按主键顺序选取 chunkSize 行后按主键更新并单独提交
+	 * </p>
+	 * <p>
+	 * 不能在事务中调用；wrapper 不能包含 orderBy、groupBy、having、last 等非条件部分。
+	 * 更新内容使该行不再满足条件时，每批的选取仍从上一批最大主键之后开始，不会重复处理
+	 * </p>
+	 *
+	 * @param entity
+	 *            实体对象
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @param options
+	 *            分批参数
+	 * @return long 影响总行数
+	 */
+	long updateByWrapperChunked(T entity, Wrapper<T> wrapper, ChunkOptions options);
+
 	/**
 	 * <p>
 	 * 根据 ID 查询
@@ -120,6 +313,9 @@ public interface IMPService<T> {
 	 * <p>
 	 * 查询（根据ID 批量查询）
 	 * </p>
+	 * <p>
+	 * 主键数量较多时按批拆分为多条 IN 语句，结果按传入的主键顺序返回
+	 * </p>
 	 *
 	 * @param idList
 	 *            主键ID列表
@@ -131,6 +327,10 @@ public interface IMPService<T> {
 	 * <p>
 	 * 根据 Wrapper，查询一条记录
 	 * </p>
+	 * <p>
+	 * 最多读取 2 行，多于 1 行时记录警告并返回第一条；配置分页插件时转换为数据库方言的 LIMIT，未配置时 SQL 不含 LIMIT，MyBatis 读取 2
+	 * 行后停止。wrapper 已通过 last 拼接 LIMIT 时按原语句查询
+	 * </p>
 	 *
 	 * @param wrapper
 	 *            实体对象
@@ -138,6 +338,34 @@ public interface IMPService<T> {
 	 */
 	T selectOne(Wrapper<T> wrapper);
 
+	/**
+	 * <p>
+	 * 根据 Wrapper，查询第一条记录，以 RowBounds 限制为 1 行（配置分页插件时转换为数据库方言的 LIMIT）
+	 * </p>
+	 * <p>
+	 * 未配置分页插件时 SQL 不含 LIMIT，MyBatis 读取 1 行后停止；wrapper 已通过 last 拼接 LIMIT 时按原语句查询
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体对象
+	 * @return T
+	 */
+	T selectFirst(Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 根据 Wrapper 条件，判断是否存在记录，仅读取 1 行，不执行 COUNT
+	 * </p>
+	 * <p>
+	 * 与 {@link #selectFirst(Wrapper)} 相同，LIMIT 依赖分页插件
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体对象
+	 * @return boolean
+	 */
+	boolean exists(Wrapper<T> wrapper);
+
 	/**
 	 * <p>
 	 * 根据 Wrapper 条件，查询总记录数
@@ -160,6 +388,164 @@ public interface IMPService<T> {
 	 */
 	List<T> selectList(Wrapper<T> wrapper);
 
+	/**
+	 * <p>
+	 * 只查询指定列，每行结果为 列名 -> 值 的 Map，不创建实体
+	 * </p>
+	 * <p>
+	 * 查询期间以 columns 替换 wrapper 的查询列，结束后恢复；列可带别名，如 "user_name AS name"
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @param columns
+	 *            查询列
+	 * @return List<Map<String, Object>>
+	 */
+	List<Map<String, Object>> selectColumns(Wrapper<T> wrapper, String... columns);
+
+	/**
+	 * <p>
+	 * 只查询指定列，按列名（或别名）自动映射为 resultType，不创建实体
+	 * </p>
+	 *
+	 * @param resultType
+	 *            结果类型，如 DTO 类
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @param columns
+	 *            查询列
+	 * @return List<R>
+	 */
+	<R> List<R> selectColumns(Class<R> resultType, Wrapper<T> wrapper, String... columns);
+
+	/**
+	 * <p>
+	 * 查询单个数值列，结果为 long 数组，NULL 值跳过
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @param column
+	 *            查询列
+	 * @return long[]
+	 */
+	long[] selectLongs(Wrapper<T> wrapper, String column);
+
+	/**
+	 * <p>
+	 * 查询单个数值列，结果为 double 数组，NULL 值跳过
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @param column
+	 *            查询列
+	 * @return double[]
+	 */
+	double[] selectDoubles(Wrapper<T> wrapper, String column);
+
+	/**
+	 * <p>
+	 * 按 wrapper 条件在数据库中计算聚合值，结果为 long，无记录或结果为 NULL 时返回 0
+	 * </p>
+	 * <p>
+	 * wrapper 不能包含 orderBy、groupBy、having、last 等非条件部分，下同
+	 * </p>
+	 *
+	 * @param aggregate
+	 *            聚合函数
+	 * @param column
+	 *            列名或表达式
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @return long
+	 */
+	long aggregateLong(Aggregate aggregate, String column, Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 按 wrapper 条件在数据库中计算聚合值，结果为 double，无记录或结果为 NULL 时返回 {@link Double#NaN}
+	 * </p>
+	 *
+	 * @param aggregate
+	 *            聚合函数
+	 * @param column
+	 *            列名或表达式
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @return double
+	 */
+	double aggregateDouble(Aggregate aggregate, String column, Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 按 groupColumn 分组计算聚合值，结果为 long，聚合结果为 NULL 的分组值为 0
+	 * </p>
+	 *
+	 * @param aggregate
+	 *            聚合函数
+	 * @param column
+	 *            列名或表达式
+	 * @param groupColumn
+	 *            分组列
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @return GroupedLongs
+	 */
+	GroupedLongs aggregateLongBy(Aggregate aggregate, String column, String groupColumn, Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 按 groupColumn 分组计算聚合值，结果为 double，聚合结果为 NULL 的分组值为 {@link Double#NaN}
+	 * </p>
+	 *
+	 * @param aggregate
+	 *            聚合函数
+	 * @param column
+	 *            列名或表达式
+	 * @param groupColumn
+	 *            分组列
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @return GroupedDoubles
+	 */
+	GroupedDoubles aggregateDoubleBy(Aggregate aggregate, String column, String groupColumn, Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 流式查询，逐行回调 handler，不在内存中保留整个结果集
+	 * </p>
+	 * <p>
+	 * MySQL 使用 Integer.MIN_VALUE 作为 fetchSize 开启逐行流式读取；不在事务中时临时关闭自动提交，
+	 * 使 PostgreSQL 等驱动按 fetchSize 分批读取
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @param fetchSize
+	 *            JDBC fetchSize
+	 * @param handler
+	 *            结果处理器
+	 */
+	void selectForEach(Wrapper<T> wrapper, int fetchSize, ResultHandler<T> handler);
+
+	/**
+	 * <p>
+	 * 流式查询，返回 MyBatis 游标，游标持有独立的数据库连接
+	 * </p>
+	 * <p>
+	 * 调用方必须关闭游标（推荐 try-with-resources），关闭时释放连接并记录读取行数及耗时
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @param fetchSize
+	 *            JDBC fetchSize
+	 * @return Cursor<T>
+	 */
+	Cursor<T> selectCursor(Wrapper<T> wrapper, int fetchSize);
+
 	/**
 	 * <p>
 	 * 翻页查询
@@ -183,4 +569,40 @@ public interface IMPService<T> {
 	 * @return
 	 */
 	Page<T> selectPage(Page<T> page, Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 延迟关联翻页查询：先按条件、排序及偏移量只查询主键，再根据主键查询当页实体，按主键查询的顺序返回
+	 * </p>
+	 * <p>
+	 * 深分页时数据库仍需跳过 offset 行，但只读取主键，适用于宽表；wrapper 已指定查询列或没有主键时按普通翻页查询
+	 * </p>
+	 *
+	 * @param page
+	 *            翻页对象
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @return
+	 */
+	Page<T> selectPageDeferred(Page<T> page, Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 游标翻页查询，以上一页最后一行的主键（及排序字段）定位，不使用 OFFSET
+	 * </p>
+	 * <p>
+	 * 主键列由表信息解析；续页条件及排序追加在 wrapper 的副本上，wrapper 不可设置 orderBy / groupBy / last，
+	 * 可跨页复用。通过返回对象的 next() 获取下一页查询对象
+	 * </p>
+	 * <p>
+	 * 各数据库 NULL 的排序位置不同，指定排序字段时不返回该字段为 NULL 的行，排序字段应为 NOT NULL 列
+	 * </p>
+	 *
+	 * @param page
+	 *            游标分页对象
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @return KeysetPage
+	 */
+	KeysetPage<T> selectKeysetPage(KeysetPage<T> page, Wrapper<T> wrapper);
 }
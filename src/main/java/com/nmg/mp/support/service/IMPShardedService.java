@@ -0,0 +1,194 @@
+package com.nmg.mp.support.service;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+
+import com.baomidou.mybatisplus.mapper.Wrapper;
+
+/**
+ * 类IMPShardedService.java的实现描述：分库的 mp service 接口，按 {@link ShardStrategy} 将操作路由到各分片
+ * <p>
+ * 批量操作按分片拆分后并行执行并汇总结果；按条件的操作发送到全部分片。
+ * 各分片独立提交，跨分片的操作不保证原子性
+ * </p>
+ */
+public interface IMPShardedService<T> {
+
+	/**
+	 * <p>
+	 * 分片数
+	 * </p>
+	 */
+	int getShardCount();
+
+	/**
+	 * <p>
+	 * 指定分片的 service，用于分片内的分页、流式查询等操作
+	 * </p>
+	 *
+	 * @param index
+	 *            分片下标
+	 * @return IMPService<T>
+	 */
+	IMPService<T> getShard(int index);
+
+	/**
+	 * <p>
+	 * 插入一条记录，主键为 ID_WORKER / UUID 且为空时先生成主键再路由
+	 * </p>
+	 *
+	 * @param entity
+	 *            实体对象
+	 * @return boolean
+	 */
+	boolean insert(T entity);
+
+	/**
+	 * <p>
+	 * 按分片拆分后并行批量插入
+	 * </p>
+	 *
+	 * @param entityList
+	 *            实体对象列表
+	 * @return boolean
+	 */
+	boolean insertBatch(List<T> entityList);
+
+	/**
+	 * <p>
+	 * 按分片拆分后并行批量插入
+	 * </p>
+	 *
+	 * @param entityList
+	 *            实体对象列表
+	 * @param batchSize
+	 *            每个分片的批量大小
+	 * @return boolean
+	 */
+	boolean insertBatch(List<T> entityList, int batchSize);
+
+	/**
+	 * <p>
+	 * 按分片拆分后并行批量插入或更新
+	 * </p>
+	 *
+	 * @param entityList
+	 *            实体对象列表
+	 * @return boolean
+	 */
+	boolean upsertBatch(List<T> entityList);
+
+	/**
+	 * <p>
+	 * 根据 ID 删除，分片键不是主键时发送到全部分片
+	 * </p>
+	 *
+	 * @param id
+	 *            主键ID
+	 * @return boolean
+	 */
+	boolean deleteById(Serializable id);
+
+	/**
+	 * <p>
+	 * 按分片拆分后并行删除（根据ID 批量删除）
+	 * </p>
+	 *
+	 * @param idList
+	 *            主键ID列表
+	 * @return boolean
+	 */
+	boolean deleteBatchIds(Collection<? extends Serializable> idList);
+
+	/**
+	 * <p>
+	 * 根据 wrapper 条件在全部分片并行删除
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @return boolean
+	 */
+	boolean delete(Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 根据 ID 修改
+	 * </p>
+	 *
+	 * @param entity
+	 *            实体对象
+	 * @return boolean
+	 */
+	boolean updateById(T entity);
+
+	/**
+	 * <p>
+	 * 按分片拆分后并行批量修改
+	 * </p>
+	 *
+	 * @param entityList
+	 *            实体对象列表
+	 * @return 影响行数
+	 */
+	int updateBatchById(List<T> entityList);
+
+	/**
+	 * <p>
+	 * 根据 wrapper 条件在全部分片并行修改
+	 * </p>
+	 *
+	 * @param entity
+	 *            实体对象
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @return boolean
+	 */
+	boolean updateByWrapper(T entity, Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 根据 ID 查询，分片键不是主键时并行查询全部分片
+	 * </p>
+	 *
+	 * @param id
+	 *            主键ID
+	 * @return T
+	 */
+	T selectById(Serializable id);
+
+	/**
+	 * <p>
+	 * 按分片拆分后并行查询（根据ID 批量查询），按传入的主键顺序返回
+	 * </p>
+	 *
+	 * @param idList
+	 *            主键ID列表
+	 * @return List<T>
+	 */
+	List<T> selectBatchIds(Collection<? extends Serializable> idList);
+
+	/**
+	 * <p>
+	 * 根据 Wrapper 条件在全部分片并行查询总记录数并求和
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体对象
+	 * @return int
+	 */
+	int selectCount(Wrapper<T> wrapper);
+
+	/**
+	 * <p>
+	 * 根据 Wrapper 条件在全部分片并行查询，按分片顺序合并结果，不保证 orderBy 的全局顺序
+	 * </p>
+	 *
+	 * @param wrapper
+	 *            实体包装类 {@link Wrapper}
+	 * @return List<T>
+	 */
+	List<T> selectList(Wrapper<T> wrapper);
+
+}
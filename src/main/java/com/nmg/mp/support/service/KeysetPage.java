@@ -0,0 +1,132 @@
+package com.nmg.mp.support.service;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 类KeysetPage.java的实现描述：游标（keyset）分页对象
+ * <p>
+ * 以上一页最后一行的排序值和主键作为续页条件（WHERE key > ? ORDER BY key LIMIT size），
+ * 翻页代价与页码无关。排序字段为空时按主键排序，否则按排序字段排序并以主键作为第二排序保证顺序稳定
+ * </p>
+ */
+public class KeysetPage<T> implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * 每页记录数
+	 */
+	private final int size;
+	/**
+	 * 排序字段（数据库列名），为空时按主键排序
+	 */
+	private final String sortColumn;
+	/**
+	 * 是否升序
+	 */
+	private final boolean asc;
+	/**
+	 * 上一页最后一行的排序字段值，续页条件
+	 */
+	private Object lastSortValue;
+	/**
+	 * 上一页最后一行的主键值，续页条件，为 null 表示第一页
+	 */
+	private Object lastKey;
+	/**
+	 * 查询数据列表
+	 */
+	private List<T> records = Collections.emptyList();
+	/**
+	 * 是否存在下一页
+	 */
+	private boolean hasNext;
+
+	public KeysetPage(int size) {
+		this(size, null, true);
+	}
+
+	public KeysetPage(int size, String sortColumn, boolean asc) {
+		if (size < 1) {
+			throw new IllegalArgumentException("Error: size must be positive");
+		}
+		this.size = size;
+		this.sortColumn = sortColumn;
+		this.asc = asc;
+	}
+
+	/**
+	 * <p>
+	 * 下一页查询对象，续页条件取自本页最后一行
+	 * </p>
+	 *
+	 * @return KeysetPage
+	 */
+	public KeysetPage<T> next() {
+		KeysetPage<T> next = new KeysetPage<>(size, sortColumn, asc);
+		next.setLastKey(lastKey);
+		next.setLastSortValue(lastSortValue);
+		return next;
+	}
+
+	public boolean isFirst() {
+		return null == lastKey;
+	}
+
+	public int getSize() {
+		return size;
+	}
+
+	public String getSortColumn() {
+		return sortColumn;
+	}
+
+	public boolean isAsc() {
+		return asc;
+	}
+
+	public Object getLastSortValue() {
+		return lastSortValue;
+	}
+
+	public KeysetPage<T> setLastSortValue(Object lastSortValue) {
+		this.lastSortValue = lastSortValue;
+		return this;
+	}
+
+	public Object getLastKey() {
+		return lastKey;
+	}
+
+	public KeysetPage<T> setLastKey(Object lastKey) {
+		this.lastKey = lastKey;
+		return this;
+	}
+
+	public List<T> getRecords() {
+		return records;
+	}
+
+	public KeysetPage<T> setRecords(List<T> records) {
+		this.records = records;
+		return this;
+	}
+
+	public boolean isHasNext() {
+		return hasNext;
+	}
+
+	public KeysetPage<T> setHasNext(boolean hasNext) {
+		this.hasNext = hasNext;
+		return this;
+	}
+
+	@Override
+	public String toString() {
+		return "KeysetPage {size: " + size + ", sortColumn: " + sortColumn + ", asc: " + asc + ", lastSortValue: "
+				+ lastSortValue + ", lastKey: " + lastKey + ", hasNext: " + hasNext + "}";
+	}
+
+}
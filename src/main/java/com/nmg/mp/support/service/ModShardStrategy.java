@@ -0,0 +1,78 @@
+package com.nmg.mp.support.service;
+
+import java.io.Serializable;
+
+import org.apache.ibatis.reflection.SystemMetaObject;
+
+/**
+ * 类ModShardStrategy.java的实现描述：按分片键取模的分片策略
+ * <p>
+ * 实体属性值与主键值使用同一规则：数值及可解析为 long 的字符串（如 ID_WORKER_STR 主键）按数值取模，其余按字符串形式的
+ * hashCode 取模，因此 123L 与 "123" 落在同一分片
+ * </p>
+ */
+public class ModShardStrategy<T> implements ShardStrategy<T> {
+
+	private final String property;
+
+	private final boolean keyProperty;
+
+	/**
+	 * @param property
+	 *            分片键对应的实体属性名
+	 * @param keyProperty
+	 *            分片键是否为主键，是则按主键的操作只发送到所在分片
+	 */
+	public ModShardStrategy(String property, boolean keyProperty) {
+		this.property = property;
+		this.keyProperty = keyProperty;
+	}
+
+	@Override
+	public int shardOf(T entity, int shardCount) {
+		Object value = SystemMetaObject.forObject(entity).getValue(property);
+		if (null == value) {
+			throw new IllegalArgumentException("Error: shard key " + property + " must not be null");
+		}
+		return mod(value, shardCount);
+	}
+
+	@Override
+	public int shardOfId(Serializable id, int shardCount) {
+		return keyProperty && null != id ? mod(id, shardCount) : -1;
+	}
+
+	private static int mod(Object value, int shardCount) {
+		long key = key(value);
+		return (int) ((key % shardCount + shardCount) % shardCount);
+	}
+
+	private static long key(Object value) {
+		if (value instanceof Number) {
+			return ((Number) value).longValue();
+		}
+		String text = String.valueOf(value);
+		if (isLong(text)) {
+			try {
+				return Long.parseLong(text);
+			} catch (NumberFormatException e) {
+				// 超出 long 范围
+			}
+		}
+		return text.hashCode();
+	}
+
+	private static boolean isLong(String text) {
+		int length = text.length();
+		if (length == 0 || length > 20) {
+			return false;
+		}
+		for (int i = text.charAt(0) == '-' && length > 1 ? 1 : 0; i < length; i++) {
+			if (!Character.isDigit(text.charAt(i))) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+}
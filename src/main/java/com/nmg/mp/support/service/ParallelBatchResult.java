@@ -0,0 +1,78 @@
+package com.nmg.mp.support.service;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 类ParallelBatchResult.java的实现描述：并行批量操作结果，按分区汇总
+ */
+public class ParallelBatchResult implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	private final List<PartitionResult> partitions;
+
+	public ParallelBatchResult(List<PartitionResult> partitions) {
+		this.partitions = Collections.unmodifiableList(partitions);
+	}
+
+	public List<PartitionResult> getPartitions() {
+		return partitions;
+	}
+
+	/**
+	 * 失败的分区
+	 */
+	public List<PartitionResult> getFailedPartitions() {
+		List<PartitionResult> failed = new ArrayList<>();
+		for (PartitionResult partition : partitions) {
+			if (!partition.isSuccess()) {
+				failed.add(partition);
+			}
+		}
+		return failed;
+	}
+
+	/**
+	 * 所有分区是否均执行成功
+	 */
+	public boolean isSuccess() {
+		for (PartitionResult partition : partitions) {
+			if (!partition.isSuccess()) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * 影响总行数
+	 */
+	public int getAffectedRows() {
+		int rows = 0;
+		for (PartitionResult partition : partitions) {
+			rows += partition.getAffectedRows();
+		}
+		return rows;
+	}
+
+	/**
+	 * 失败总行数
+	 */
+	public int getFailedRows() {
+		int rows = 0;
+		for (PartitionResult partition : partitions) {
+			rows += partition.getFailedRows();
+		}
+		return rows;
+	}
+
+	@Override
+	public String toString() {
+		return "ParallelBatchResult [affectedRows=" + getAffectedRows() + ", failedRows=" + getFailedRows()
+				+ ", partitions=" + partitions + "]";
+	}
+
+}
@@ -0,0 +1,109 @@
+package com.nmg.mp.support.service;
+
+import java.io.Serializable;
+
+/**
+ * 类PartitionResult.java的实现描述：并行批量操作中单个分区的执行结果
+ */
+public class PartitionResult implements Serializable {
+
+	private static final long serialVersionUID = 1L;
+
+	/**
+	 * 分区序号
+	 */
+	private final int index;
+	/**
+	 * 分区在原列表中的起始下标（包含）
+	 */
+	private final int fromIndex;
+	/**
+	 * 分区在原列表中的结束下标（不包含）
+	 */
+	private final int toIndex;
+	/**
+	 * 影响行数
+	 */
+	private int affectedRows;
+	/**
+	 * 写入失败（已回滚或未执行）的行数
+	 */
+	private int failedRows;
+	/**
+	 * 首个异常，为 null 表示分区执行成功
+	 */
+	private Throwable error;
+
+	public PartitionResult(int index, int fromIndex, int toIndex) {
+		this.index = index;
+		this.fromIndex = fromIndex;
+		this.toIndex = toIndex;
+	}
+
+	public int getIndex() {
+		return index;
+	}
+
+	public int getFromIndex() {
+		return fromIndex;
+	}
+
+	public int getToIndex() {
+		return toIndex;
+	}
+
+	public int size() {
+		return toIndex - fromIndex;
+	}
+
+	public int getAffectedRows() {
+		return affectedRows;
+	}
+
+	public PartitionResult addAffectedRows(int rows) {
+		this.affectedRows += rows;
+		return this;
+	}
+
+	public int getFailedRows() {
+		return failedRows;
+	}
+
+	public PartitionResult addFailedRows(int rows) {
+		this.failedRows += rows;
+		return this;
+	}
+
+	public Throwable getError() {
+		return error;
+	}
+
+	public PartitionResult setError(Throwable error) {
+		if (null == this.error) {
+			this.error = error;
+		}
+		return this;
+	}
+
+	/**
+	 * <p>
+	 * 分区整体失败（已回滚或未执行）：影响行数清零，全部行计为失败
+	 * </p>
+	 */
+	public PartitionResult fail(Throwable error) {
+		this.affectedRows = 0;
+		this.failedRows = size();
+		return setError(error);
+	}
+
+	public boolean isSuccess() {
+		return null == error;
+	}
+
+	@Override
+	public String toString() {
+		return "PartitionResult [index=" + index + ", fromIndex=" + fromIndex + ", toIndex=" + toIndex
+				+ ", affectedRows=" + affectedRows + ", failedRows=" + failedRows + ", error=" + error + "]";
+	}
+
+}
@@ -0,0 +1,36 @@
+package com.nmg.mp.support.service;
+
+import java.io.Serializable;
+
+/**
+ * 类ShardStrategy.java的实现描述：分片路由策略，根据实体或主键计算所在分片
+ */
+public interface ShardStrategy<T> {
+
+	/**
+	 * <p>
+	 * 实体所在分片
+	 * </p>
+	 *
+	 * @param entity
+	 *            实体对象
+	 * @param shardCount
+	 *            分片数
+	 * @return 分片下标，0 ~ shardCount - 1
+	 */
+	int shardOf(T entity, int shardCount);
+
+	/**
+	 * <p>
+	 * 主键所在分片，分片键不是主键时返回 -1，按主键的操作将发送到全部分片
+	 * </p>
+	 *
+	 * @param id
+	 *            主键ID
+	 * @param shardCount
+	 *            分片数
+	 * @return 分片下标，0 ~ shardCount - 1，或 -1
+	 */
+	int shardOfId(Serializable id, int shardCount);
+
+}
@@ -0,0 +1,87 @@
+package com.nmg.mp.support.service.impl;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 类EntitySnapshots.java的实现描述：实体加载时的属性值快照，用于 updateById 只更新修改过的字段
+ * <p>
+ * 按对象标识记录（不依赖实体的 equals / hashCode），以弱引用持有实体，实体被回收后快照随之清除
+ * </p>
+ */
+class EntitySnapshots {
+
+	private final ReferenceQueue<Object> queue = new ReferenceQueue<>();
+
+	private final ConcurrentMap<IdentityKey, Object[]> snapshots = new ConcurrentHashMap<>();
+
+	/**
+	 * <p>
+	 * 记录快照，实体已有快照时保留原快照（如缓存中的同一实例被多次返回）
+	 * </p>
+	 */
+	void track(Object entity, Object[] values) {
+		expunge();
+		snapshots.putIfAbsent(new IdentityKey(entity, queue), values);
+	}
+
+	/**
+	 * <p>
+	 * 替换快照，用于更新成功后以当前值作为新的基准
+	 * </p>
+	 */
+	void put(Object entity, Object[] values) {
+		expunge();
+		snapshots.put(new IdentityKey(entity, queue), values);
+	}
+
+	Object[] get(Object entity) {
+		return snapshots.get(new IdentityKey(entity, null));
+	}
+
+	int size() {
+		expunge();
+		return snapshots.size();
+	}
+
+	private void expunge() {
+		Reference<?> reference;
+		while (null != (reference = queue.poll())) {
+			snapshots.remove(reference);
+		}
+	}
+
+	/**
+	 * 按对象标识比较的弱引用
+	 */
+	private static final class IdentityKey extends WeakReference<Object> {
+
+		private final int hash;
+
+		private IdentityKey(Object referent, ReferenceQueue<Object> queue) {
+			super(referent, queue);
+			this.hash = System.identityHashCode(referent);
+		}
+
+		@Override
+		public int hashCode() {
+			return hash;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof IdentityKey)) {
+				return false;
+			}
+			Object referent = get();
+			return null != referent && referent == ((IdentityKey) obj).get();
+		}
+	}
+
+}
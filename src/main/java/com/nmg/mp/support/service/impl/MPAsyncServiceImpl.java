@@ -0,0 +1,174 @@
+package com.nmg.mp.support.service.impl;
+
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.util.ClassUtils;
+import org.springframework.util.concurrent.ListenableFuture;
+import org.springframework.util.concurrent.ListenableFutureTask;
+import org.springframework.util.concurrent.SettableListenableFuture;
+
+import com.baomidou.mybatisplus.mapper.Wrapper;
+import com.baomidou.mybatisplus.plugins.Page;
+import com.nmg.mp.support.service.IMPAsyncService;
+import com.nmg.mp.support.service.IMPService;
+import com.nmg.mp.support.toolkit.ExecutorUtils;
+
+/**
+ * 类MPAsyncServiceImpl.java的实现描述：mp service 异步查询实现，委托给同步 service 执行
+ * <p>
+ * 传入的 service 应为 Spring 容器中的 bean（代理对象），以保证事务等切面生效
+ * </p>
+ * <p>
+ * 线程池饱和时返回以 {@link RejectedExecutionException} 失败的 future，任务不会在调用线程（及其事务）中执行；
+ * 自定义线程池若使用 CallerRunsPolicy，饱和时任务会在调用线程中执行并参与其事务
+ * </p>
+ */
+public class MPAsyncServiceImpl<T> implements IMPAsyncService<T> {
+
+	private final IMPService<T> service;
+
+	private final ExecutorService executor;
+
+	/**
+	 * 使用默认并行度的有界线程池，队列满时拒绝任务
+	 */
+	public MPAsyncServiceImpl(IMPService<T> service) {
+		this(service, ExecutorUtils.newBoundedExecutor(ClassUtils.getUserClass(service).getSimpleName() + "-async",
+				ExecutorUtils.DEFAULT_PARALLELISM, 1024, new ThreadPoolExecutor.AbortPolicy()));
+	}
+
+	public MPAsyncServiceImpl(IMPService<T> service, ExecutorService executor) {
+		this.service = service;
+		this.executor = executor;
+	}
+
+	/**
+	 * <p>
+	 * 使用虚拟线程执行（JDK 21+，否则退化为有界线程池），maxConcurrency 通常取连接池大小
+	 * </p>
+	 */
+	public static <T> MPAsyncServiceImpl<T> withVirtualThreads(IMPService<T> service, int maxConcurrency) {
+		return new MPAsyncServiceImpl<>(service, ExecutorUtils.newVirtualThreadExecutor(
+				ClassUtils.getUserClass(service).getSimpleName() + "-async", maxConcurrency));
+	}
+
+	public IMPService<T> getService() {
+		return service;
+	}
+
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	/**
+	 * <p>
+	 * 提交异步任务，线程池拒绝时返回失败的 future
+	 * </p>
+	 */
+	protected <V> ListenableFuture<V> submit(Callable<V> task) {
+		ListenableFutureTask<V> future = new ListenableFutureTask<>(task);
+		try {
+			executor.execute(future);
+		} catch (RejectedExecutionException e) {
+			SettableListenableFuture<V> rejected = new SettableListenableFuture<>();
+			rejected.setException(e);
+			return rejected;
+		}
+		return future;
+	}
+
+	@Override
+	public ListenableFuture<T> selectById(final Serializable id) {
+		return submit(new Callable<T>() {
+
+			@Override
+			public T call() {
+				return service.selectById(id);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<List<T>> selectBatchIds(final Collection<? extends Serializable> idList) {
+		return submit(new Callable<List<T>>() {
+
+			@Override
+			public List<T> call() {
+				return service.selectBatchIds(idList);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<T> selectOne(final Wrapper<T> wrapper) {
+		return submit(new Callable<T>() {
+
+			@Override
+			public T call() {
+				return service.selectOne(wrapper);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<T> selectFirst(final Wrapper<T> wrapper) {
+		return submit(new Callable<T>() {
+
+			@Override
+			public T call() {
+				return service.selectFirst(wrapper);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Boolean> exists(final Wrapper<T> wrapper) {
+		return submit(new Callable<Boolean>() {
+
+			@Override
+			public Boolean call() {
+				return service.exists(wrapper);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Integer> selectCount(final Wrapper<T> wrapper) {
+		return submit(new Callable<Integer>() {
+
+			@Override
+			public Integer call() {
+				return service.selectCount(wrapper);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<List<T>> selectList(final Wrapper<T> wrapper) {
+		return submit(new Callable<List<T>>() {
+
+			@Override
+			public List<T> call() {
+				return service.selectList(wrapper);
+			}
+		});
+	}
+
+	@Override
+	public ListenableFuture<Page<T>> selectPage(final Page<T> page, final Wrapper<T> wrapper) {
+		return submit(new Callable<Page<T>>() {
+
+			@Override
+			public Page<T> call() {
+				return service.selectPage(page, wrapper);
+			}
+		});
+	}
+
+}
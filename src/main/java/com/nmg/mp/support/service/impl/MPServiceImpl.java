@@ -1,22 +1,92 @@
 package com.nmg.mp.support.service.impl;
 
 import java.io.Serializable;
+import java.lang.reflect.Field;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.regex.Pattern;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
 import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.datasource.DataSourceUtils;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import com.baomidou.mybatisplus.MybatisSqlSessionTemplate;
+import com.baomidou.mybatisplus.annotations.Version;
+import com.baomidou.mybatisplus.entity.TableFieldInfo;
+import com.baomidou.mybatisplus.entity.TableInfo;
+import com.baomidou.mybatisplus.enums.DBType;
+import com.baomidou.mybatisplus.enums.FieldFill;
 import com.baomidou.mybatisplus.enums.SqlMethod;
 import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
 import com.baomidou.mybatisplus.mapper.BaseMapper;
 import com.baomidou.mybatisplus.mapper.Condition;
+import com.baomidou.mybatisplus.mapper.EntityWrapper;
+import com.baomidou.mybatisplus.mapper.MetaObjectHandler;
 import com.baomidou.mybatisplus.mapper.SqlHelper;
+import com.baomidou.mybatisplus.mapper.SqlRunner;
 import com.baomidou.mybatisplus.mapper.Wrapper;
 import com.baomidou.mybatisplus.plugins.Page;
 import com.baomidou.mybatisplus.toolkit.CollectionUtils;
+import com.baomidou.mybatisplus.toolkit.GlobalConfigUtils;
 import com.baomidou.mybatisplus.toolkit.ReflectionKit;
+import com.baomidou.mybatisplus.toolkit.StringUtils;
+import com.nmg.mp.generator.config.rules.DbType;
+import com.nmg.mp.support.metrics.MetricsRegistry;
+import com.nmg.mp.support.metrics.SlowOperationLog;
+import com.nmg.mp.support.service.Aggregate;
+import com.nmg.mp.support.service.ChunkOptions;
+import com.nmg.mp.support.service.ChunkProgressListener;
+import com.nmg.mp.support.service.EntityCache;
+import com.nmg.mp.support.service.GroupedDoubles;
+import com.nmg.mp.support.service.GroupedLongs;
 import com.nmg.mp.support.service.IMPService;
+import com.nmg.mp.support.service.KeysetPage;
+import com.nmg.mp.support.service.ParallelBatchResult;
+import com.nmg.mp.support.service.PartitionResult;
+import com.nmg.mp.support.toolkit.AdaptiveBatchSizer;
+import com.nmg.mp.support.toolkit.BulkLoadHelper;
+import com.nmg.mp.support.toolkit.ExecutorUtils;
+import com.nmg.mp.support.toolkit.IdHelper;
+import com.nmg.mp.support.toolkit.PageCountQuery;
+import com.nmg.mp.support.toolkit.SqlScriptHelper;
+import com.nmg.mp.support.toolkit.TableSqlBuilder;
 
 /**
  * 类MPServiceImpl.java的实现描述：mp service实现
@@ -25,9 +95,119 @@ import com.nmg.mp.support.service.IMPService;
  */
 public class MPServiceImpl<M extends BaseMapper<T>, T> implements IMPService<T> {
 
+	/**
+	 * 多值插入单条语句默认的最大参数个数（SQL Server 上限 2100）
+	 */
+	protected static final int DEFAULT_MAX_PARAMETERS = 2000;
+
+	/**
+	 * 多值插入每累积多少条语句执行一次 flushStatements，相同语句在 JDBC 批次中一起提交
+	 */
+	private static final int VALUES_STATEMENTS_PER_FLUSH = 10;
+
+	/**
+	 * wrapper 中调用方自行拼接的行数限制
+	 */
+	private static final Pattern ROW_LIMIT = Pattern.compile("(?i)\\bLIMIT\\b|\\bFETCH\\s+(FIRST|NEXT)\\b|\\bROWNUM\\b");
+
+	/**
+	 * 并行分区被线程池拒绝且本次调用没有已提交的分区时，重新提交前的最长等待（毫秒），从 1 毫秒起逐次翻倍
+	 */
+	private static final long PARTITION_RETRY_MAX_MILLIS = 100;
+
 	@Autowired
 	protected M baseMapper;
 
+	/**
+	 * 并行操作线程池，未设置时按需创建有界线程池
+	 */
+	private ExecutorService parallelExecutor;
+
+	/**
+	 * 数据库类型，未设置时根据 mybatis-plus 全局配置推断
+	 */
+	private DbType dbType;
+
+	/**
+	 * 实体缓存，为 null 时不缓存
+	 */
+	private volatile EntityCache<T> entityCache;
+
+	/**
+	 * selectById 请求合并，为 null 时不合并
+	 */
+	private volatile SelectByIdCoalescer<T> selectByIdCoalescer;
+
+	/**
+	 * selectBatchIds / deleteBatchIds 单条语句 IN 条件的最大主键数（Oracle 上限 1000）
+	 */
+	private int idChunkSize = 1000;
+
+	/**
+	 * selectBatchIds 拆分后的批次是否并行查询
+	 */
+	private boolean parallelIdChunks;
+
+	/**
+	 * selectPage 的总数查询是否与记录查询并行执行
+	 */
+	private boolean parallelPageCount;
+
+	/**
+	 * selectPage 不查询总数时是否多取一行判断是否存在下一页
+	 */
+	private boolean pageCountProbe;
+
+	/**
+	 * selectPage 总数缓存，为 null 时不缓存
+	 */
+	private volatile PageCountCache pageCountCache;
+
+	/**
+	 * selectPage 是否默认使用延迟关联分页
+	 */
+	private boolean deferredJoinPage;
+
+	/**
+	 * 修改跟踪的实体快照，为 null 时不跟踪
+	 */
+	private volatile EntitySnapshots entitySnapshots;
+
+	/**
+	 * 实体是否有 @Version 乐观锁字段，首次使用修改跟踪时确定
+	 */
+	private volatile Boolean versioned;
+
+	/**
+	 * 操作指标记录，为 null 时不记录
+	 */
+	private volatile MetricsRegistry metricsRegistry;
+
+	/**
+	 * 慢操作记录，为 null 时不记录
+	 */
+	private volatile SlowOperationLog slowOperationLog;
+
+	/**
+	 * insertBatch 自适应批量大小，为 null 时使用固定批量大小
+	 */
+	private volatile AdaptiveBatchSizer adaptiveBatchSizer;
+
+	/**
+	 * 只读副本，为 null 时读写均访问主库
+	 */
+	private volatile Replica<M> replica;
+
+	/**
+	 * 写操作后同一线程读主库的时长（纳秒）
+	 */
+	private long readYourWritesNanos = TimeUnit.SECONDS.toNanos(1);
+
+	/**
+	 * 当前线程最近一次写操作的时间 {@link System#nanoTime()}，各 service 共用，写任一实体后同一线程的读取均访问主库
+	 */
+	private static final ThreadLocal<Long> LAST_WRITE_NANOS = new ThreadLocal<>();
+
 	/**
 	 * <p>
 	 * 判断数据库操作是否成功
@@ -59,115 +239,2338 @@ public class MPServiceImpl<M extends BaseMapper<T>, T> implements IMPService<T>
 	}
 
 	/**
-	 * 获取SqlStatement
+	 * <p>
+	 * 由 Spring 管理的 SqlSession，无需关闭
+	 * </p>
+	 */
+	protected SqlSession sqlSession() {
+		return SqlHelper.sqlSession(currentModelClass());
+	}
+
+	/**
+	 * <p>
+	 * 当前实体对应的 SqlSessionFactory
+	 * </p>
+	 */
+	protected SqlSessionFactory sqlSessionFactory() {
+		return GlobalConfigUtils.currentSessionFactory(currentModelClass());
+	}
+
+	/**
+	 * <p>
+	 * 并行操作线程池
+	 * </p>
+	 */
+	protected synchronized ExecutorService parallelExecutor() {
+		if (null == parallelExecutor) {
+			parallelExecutor = ExecutorUtils.newBoundedExecutor(getClass().getSimpleName(),
+					ExecutorUtils.DEFAULT_PARALLELISM, 1024);
+		}
+		return parallelExecutor;
+	}
+
+	public synchronized void setParallelExecutor(ExecutorService parallelExecutor) {
+		this.parallelExecutor = parallelExecutor;
+	}
+
+	/**
+	 * <p>
+	 * 数据库类型，用于选择方言相关的 SQL
+	 * </p>
+	 */
+	protected DbType dbType() {
+		if (null == dbType) {
+			DBType globalDbType = GlobalConfigUtils.getDbType(sqlSessionFactory().getConfiguration());
+			if (null != globalDbType) {
+				switch (globalDbType) {
+				case MYSQL:
+					dbType = DbType.MYSQL;
+					break;
+				case ORACLE:
+					dbType = DbType.ORACLE;
+					break;
+				case POSTGRE:
+					dbType = DbType.POSTGRE_SQL;
+					break;
+				case SQLSERVER:
+				case SQLSERVER2005:
+					dbType = DbType.SQL_SERVER;
+					break;
+				default:
+					break;
+				}
+			}
+			if (null == dbType) {
+				throw new MybatisPlusException("Error: unsupported dbType " + globalDbType + ", please call setDbType");
+			}
+		}
+		return dbType;
+	}
+
+	public void setDbType(DbType dbType) {
+		this.dbType = dbType;
+	}
+
+	public EntityCache<T> getEntityCache() {
+		return entityCache;
+	}
+
+	/**
+	 * <p>
+	 * 设置实体缓存，selectById / selectBatchIds 优先读取缓存，按主键的写操作使对应缓存失效，按条件的写操作清空缓存
+	 * </p>
+	 */
+	public void setEntityCache(EntityCache<T> entityCache) {
+		this.entityCache = entityCache;
+	}
+
+	public void setIdChunkSize(int idChunkSize) {
+		if (idChunkSize < 1) {
+			throw new IllegalArgumentException("Error: idChunkSize must be positive");
+		}
+		this.idChunkSize = idChunkSize;
+	}
+
+	/**
+	 * <p>
+	 * selectBatchIds 拆分后的批次是否在并行操作线程池中并行查询，处于事务中时仍顺序执行
+	 * </p>
+	 */
+	public void setParallelIdChunks(boolean parallelIdChunks) {
+		this.parallelIdChunks = parallelIdChunks;
+	}
+
+	/**
+	 * <p>
+	 * selectPage 的总数查询是否在并行操作线程池中使用单独的连接与记录查询并行执行，处于事务中时仍由分页插件顺序执行
+	 * </p>
+	 */
+	public void setParallelPageCount(boolean parallelPageCount) {
+		this.parallelPageCount = parallelPageCount;
+	}
+
+	/**
+	 * <p>
+	 * page.isSearchCount() 为 false 的 selectPage 是否多取一行判断是否存在下一页，total 设为已知的最少记录数（存在下一页时为 offset +
+	 * size + 1），hasNext() 据此判断；关闭时与分页插件一致，total 为 0
+	 * </p>
+	 */
+	public void setPageCountProbe(boolean pageCountProbe) {
+		this.pageCountProbe = pageCountProbe;
+	}
+
+	/**
+	 * <p>
+	 * 开启 selectPage 总数缓存：条件及参数相同的分页查询在 ttl 内复用总数，翻页时只查询记录，ttl 小于等于 0 时关闭
+	 * </p>
+	 * <p>
+	 * 本 service 的写操作清空缓存，其他途径的写操作最多在 ttl 后反映到总数
+	 * </p>
 	 *
-	 * @param sqlMethod
-	 * @return
+	 * @param ttl
+	 *            缓存时长
+	 * @param unit
+	 *            时间单位
 	 */
-	protected String sqlStatement(SqlMethod sqlMethod) {
-		return SqlHelper.table(currentModelClass()).getSqlStatement(sqlMethod.getMethod());
+	public void setPageCountCache(long ttl, TimeUnit unit) {
+		this.pageCountCache = ttl > 0 ? new PageCountCache(unit.toNanos(ttl)) : null;
 	}
 
-	@Override
-	public boolean insert(T entity) {
-		return retBool(baseMapper.insert(entity));
+	/**
+	 * <p>
+	 * selectPage 是否默认使用延迟关联分页，见 {@link #selectPageDeferred(Page, Wrapper)}，适用于宽表的深分页
+	 * </p>
+	 */
+	public void setDeferredJoinPage(boolean deferredJoinPage) {
+		this.deferredJoinPage = deferredJoinPage;
 	}
 
-	@Transactional(rollbackFor = Exception.class)
-	@Override
-	public boolean insertBatch(List<T> entityList) {
-		return insertBatch(entityList, 30);
+	/**
+	 * <p>
+	 * 开启修改跟踪：通过本 service 查询返回的实体记录加载时的属性值，updateById 只更新与之相比修改过的字段，
+	 * 未修改任何字段时不执行 SQL 直接返回 true
+	 * </p>
+	 * <p>
+	 * 修改过的字段即使改为 null 也会写入 NULL；未经本 service 加载的实体及带 @Version 字段的实体仍按原方式更新。
+	 * 流式查询（selectForEach / selectCursor）返回的实体不跟踪
+	 * </p>
+	 */
+	public void setChangeTracking(boolean changeTracking) {
+		this.entitySnapshots = changeTracking ? new EntitySnapshots() : null;
 	}
 
 	/**
-	 * 批量插入
+	 * <p>
+	 * 开启 selectById 请求合并：窗口时间内并发的 selectById 合并为一次 selectBatchIds 查询，window 小于等于 0 时关闭
+	 * </p>
+	 * <p>
+	 * 单个请求最多增加 window 的延迟，适用于高并发读取重叠主键的场景；处于事务中的调用不合并
+	 * </p>
 	 *
-	 * @param entityList
-	 * @param batchSize
-	 * @return
+	 * @param window
+	 *            合并窗口
+	 * @param unit
+	 *            时间单位
+	 * @param maxBatchSize
+	 *            单次查询最大主键数，达到后立即查询
 	 */
-	@Transactional(rollbackFor = Exception.class)
-	@Override
-	public boolean insertBatch(List<T> entityList, int batchSize) {
-		if (CollectionUtils.isEmpty(entityList)) {
-			throw new IllegalArgumentException("Error: entityList must not be empty");
+	public void setSelectByIdCoalescing(long window, TimeUnit unit, int maxBatchSize) {
+		setSelectByIdCoalescing(window, unit, maxBatchSize, unit.toNanos(window) + TimeUnit.SECONDS.toNanos(10),
+				TimeUnit.NANOSECONDS);
+	}
+
+	/**
+	 * <p>
+	 * 开启 selectById 请求合并，等待其他线程查询结果超过 maxWait 时直接查询，默认为 window 加 10 秒
+	 * </p>
+	 *
+	 * @param window
+	 *            合并窗口
+	 * @param unit
+	 *            时间单位
+	 * @param maxBatchSize
+	 *            单次查询最大主键数，达到后立即查询
+	 * @param maxWait
+	 *            等待合并查询结果的最长时间
+	 * @param maxWaitUnit
+	 *            maxWait 的时间单位
+	 */
+	public void setSelectByIdCoalescing(long window, TimeUnit unit, int maxBatchSize, long maxWait,
+			TimeUnit maxWaitUnit) {
+		this.selectByIdCoalescer = window > 0
+				? new SelectByIdCoalescer<>(this, window, unit, maxBatchSize, maxWait, maxWaitUnit) : null;
+	}
+
+	/**
+	 * <p>
+	 * 使缓存失效，ids 为 null 时清空缓存
+	 * </p>
+	 * <p>
+	 * 处于事务中时在事务结束后再次失效，避免事务提交前其他线程读取旧数据重新写入缓存
+	 * </p>
+	 */
+	protected void evictCache(final Collection<? extends Serializable> ids) {
+		final EntityCache<T> cache = entityCache;
+		if (null == cache) {
+			return;
 		}
-		try (SqlSession batchSqlSession = sqlSessionBatch()) {
-			int size = entityList.size();
-			String sqlStatement = sqlStatement(SqlMethod.INSERT_ONE);
-			for (int i = 0; i < size; i++) {
-				batchSqlSession.insert(sqlStatement, entityList.get(i));
-				if (i >= 1 && i % batchSize == 0) {
-					batchSqlSession.flushStatements();
+		evictCache(cache, ids);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void afterCompletion(int status) {
+					evictCache(cache, ids);
 				}
-			}
-			batchSqlSession.flushStatements();
-		} catch (Throwable e) {
-			throw new MybatisPlusException("Error: Cannot execute insertBatch Method. Cause", e);
+			});
 		}
-		return true;
 	}
 
-	@Override
-	public boolean deleteById(Serializable id) {
-		return SqlHelper.delBool(baseMapper.deleteById(id));
+	/**
+	 * <p>
+	 * 写操作结束后再次使缓存失效，避免写入期间其他线程读取旧数据重新写入缓存；处于事务中时由事务结束后的失效处理
+	 * </p>
+	 */
+	protected void evictCacheAfterWrite(Collection<? extends Serializable> ids) {
+		EntityCache<T> cache = entityCache;
+		if (null == cache || TransactionSynchronizationManager.isSynchronizationActive()) {
+			return;
+		}
+		evictCache(cache, ids);
 	}
 
-	@Override
-	public boolean delete(Wrapper<T> wrapper) {
-		return SqlHelper.delBool(baseMapper.delete(wrapper));
+	private static void evictCache(EntityCache<?> cache, Collection<? extends Serializable> ids) {
+		if (null == ids) {
+			cache.clear();
+			return;
+		}
+		for (Serializable id : ids) {
+			cache.evict(id);
+		}
 	}
 
-	@Override
-	public boolean deleteBatchIds(Collection<? extends Serializable> idList) {
-		return SqlHelper.delBool(baseMapper.deleteBatchIds(idList));
+	/**
+	 * <p>
+	 * 实体主键值
+	 * </p>
+	 */
+	protected Serializable entityId(T entity) {
+		if (null == entity) {
+			return null;
+		}
+		String keyProperty = SqlHelper.table(currentModelClass()).getKeyProperty();
+		return (Serializable) SystemMetaObject.forObject(entity).getValue(keyProperty);
 	}
 
-	@Override
-	public boolean updateById(T entity) {
-		return retBool(baseMapper.updateById(entity));
+	private List<Serializable> entityIds(List<T> entityList) {
+		List<Serializable> ids = new ArrayList<>(entityList.size());
+		for (T entity : entityList) {
+			Serializable id = entityId(entity);
+			if (null != id) {
+				ids.add(id);
+			}
+		}
+		return ids;
 	}
 
-	@Override
-	public boolean updateByWrapper(T entity, Wrapper<T> wrapper) {
-		return retBool(baseMapper.update(entity, wrapper));
+	public MetricsRegistry getMetricsRegistry() {
+		return metricsRegistry;
 	}
 
-	@Override
-	public T selectById(Serializable id) {
-		return baseMapper.selectById(id);
+	/**
+	 * <p>
+	 * 设置操作指标记录，每个 IMPService 操作结束后记录耗时、行数及是否成功
+	 * </p>
+	 */
+	public void setMetricsRegistry(MetricsRegistry metricsRegistry) {
+		this.metricsRegistry = metricsRegistry;
 	}
 
-	@Override
-	public List<T> selectBatchIds(Collection<? extends Serializable> idList) {
-		return baseMapper.selectBatchIds(idList);
+	public SlowOperationLog getSlowOperationLog() {
+		return slowOperationLog;
 	}
 
-	@Override
-	public T selectOne(Wrapper<T> wrapper) {
-		return SqlHelper.getObject(baseMapper.selectList(wrapper));
+	/**
+	 * <p>
+	 * 设置慢操作记录，超过阈值的操作连同 Wrapper 的 SQL 片段及脱敏后的参数写入环形缓冲区
+	 * </p>
+	 */
+	public void setSlowOperationLog(SlowOperationLog slowOperationLog) {
+		this.slowOperationLog = slowOperationLog;
 	}
 
-	@Override
-	public int selectCount(Wrapper<T> wrapper) {
-		return SqlHelper.retCount(baseMapper.selectCount(wrapper));
+	public AdaptiveBatchSizer getAdaptiveBatchSizer() {
+		return adaptiveBatchSizer;
 	}
 
-	@Override
-	public List<T> selectList(Wrapper<T> wrapper) {
-		return baseMapper.selectList(wrapper);
+	/**
+	 * <p>
+	 * 设置自适应批量大小，未指定 batchSize 的 insertBatch 按每批 flushStatements 的耗时及数据量调整批量大小
+	 * </p>
+	 * <p>
+	 * 每批数据量按该批首行的估算值乘以条数计算，各行大小差异较大时仅为近似值
+	 * </p>
+	 */
+	public void setAdaptiveBatchSizer(AdaptiveBatchSizer adaptiveBatchSizer) {
+		this.adaptiveBatchSizer = adaptiveBatchSizer;
 	}
 
-	@Override
-	public Page<T> selectPage(Page<T> page) {
-		return selectPage(page, Condition.EMPTY);
+	/**
+	 * <p>
+	 * 设置只读副本，selectXxx / exists 及流式查询访问副本，写操作仍访问主库，为 null 时关闭读写分离
+	 * </p>
+	 * <p>
+	 * 只使用副本 SqlSessionFactory 的数据源及事务工厂，语句取自主库的 Configuration，副本无需也不应注册实体的 Mapper
+	 * （mybatis-plus 会将实体的 TableInfo 绑定到最后注册 Mapper 的 SqlSessionFactory）；
+	 * 处于事务中或当前线程在 readYourWritesWindow 内有过写操作时仍读主库
+	 * </p>
+	 */
+	public void setReplicaSqlSessionFactory(SqlSessionFactory replicaSqlSessionFactory) {
+		if (null == replicaSqlSessionFactory) {
+			this.replica = null;
+			return;
+		}
+		Configuration primaryConfiguration = sqlSessionFactory().getConfiguration();
+		if (primaryConfiguration == replicaSqlSessionFactory.getConfiguration()) {
+			throw new MybatisPlusException("Error: " + currentModelClass().getName()
+					+ " is bound to the replica SqlSessionFactory, the replica must not register its mapper");
+		}
+		setReplica(primaryConfiguration, replicaSqlSessionFactory.getConfiguration().getEnvironment());
 	}
 
-	@Override
-	public Page<T> selectPage(Page<T> page, Wrapper<T> wrapper) {
-		wrapper = (Wrapper<T>) SqlHelper.fillWrapper(page, wrapper);
-		page.setRecords(baseMapper.selectPage(page, wrapper));
+	/**
+	 * <p>
+	 * 设置只读副本的数据源，使用主库的事务工厂，为 null 时关闭读写分离
+	 * </p>
+	 *
+	 * @see #setReplicaSqlSessionFactory(SqlSessionFactory)
+	 */
+	public void setReplicaDataSource(DataSource replicaDataSource) {
+		if (null == replicaDataSource) {
+			this.replica = null;
+			return;
+		}
+		Configuration primaryConfiguration = sqlSessionFactory().getConfiguration();
+		Environment primary = primaryConfiguration.getEnvironment();
+		setReplica(primaryConfiguration,
+				new Environment(primary.getId() + "-replica", primary.getTransactionFactory(), replicaDataSource));
+	}
+
+	@SuppressWarnings("unchecked")
+	private void setReplica(Configuration primaryConfiguration, Environment replicaEnvironment) {
+		SqlSessionFactory sqlSessionFactory = new ReplicaSqlSessionFactory(primaryConfiguration, replicaEnvironment);
+		MybatisSqlSessionTemplate sqlSession = new MybatisSqlSessionTemplate(sqlSessionFactory);
+		Class<M> mapperClass = ReflectionKit.getSuperClassGenricType(getClass(), 0);
+		this.replica = new Replica<>(sqlSessionFactory, sqlSession, sqlSession.getMapper(mapperClass));
+	}
+
+	/**
+	 * <p>
+	 * 写操作后同一线程（事务中为事务结束后）继续读主库的时长，默认 1 秒，避免副本延迟导致读不到刚写入的数据
+	 * </p>
+	 */
+	public void setReadYourWritesWindow(long window, TimeUnit unit) {
+		this.readYourWritesNanos = unit.toNanos(window);
+	}
+
+	/**
+	 * <p>
+	 * 查询使用的 Mapper
+	 * </p>
+	 */
+	protected M readMapper() {
+		Replica<M> current = replica;
+		return null == current || readFromPrimary() ? baseMapper : current.mapper;
+	}
+
+	/**
+	 * <p>
+	 * 查询使用的 SqlSession，由 Spring 管理，无需关闭
+	 * </p>
+	 */
+	protected SqlSession readSqlSession() {
+		Replica<M> current = replica;
+		return null == current || readFromPrimary() ? sqlSession() : current.sqlSession;
+	}
+
+	/**
+	 * <p>
+	 * 流式查询使用的 SqlSessionFactory
+	 * </p>
+	 */
+	protected SqlSessionFactory readSqlSessionFactory() {
+		Replica<M> current = replica;
+		return null == current || readFromPrimary() ? sqlSessionFactory() : current.sqlSessionFactory;
+	}
+
+	/**
+	 * <p>
+	 * 当前查询是否需要读主库：处于事务中，或当前线程在 readYourWritesWindow 内有过写操作
+	 * </p>
+	 */
+	protected boolean readFromPrimary() {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			return true;
+		}
+		Long last = LAST_WRITE_NANOS.get();
+		if (null == last) {
+			return false;
+		}
+		if (System.nanoTime() - last < readYourWritesNanos) {
+			return true;
+		}
+		LAST_WRITE_NANOS.remove();
+		return false;
+	}
+
+	/**
+	 * <p>
+	 * 记录当前线程的写操作，开启读写分离时生效；处于事务中时在事务结束后重新计时
+	 * </p>
+	 * <p>
+	 * 同时清空 selectPage 总数缓存
+	 * </p>
+	 */
+	protected void markWrite() {
+		PageCountCache countCache = pageCountCache;
+		if (null != countCache) {
+			countCache.clear();
+		}
+		if (null == replica) {
+			return;
+		}
+		LAST_WRITE_NANOS.set(System.nanoTime());
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+
+				@Override
+				public void afterCompletion(int status) {
+					LAST_WRITE_NANOS.set(System.nanoTime());
+				}
+			});
+		}
+	}
+
+	/**
+	 * <p>
+	 * 记录成功的操作
+	 * </p>
+	 *
+	 * @param operation
+	 *            操作名称
+	 * @param startNanos
+	 *            开始时间 {@link System#nanoTime()}
+	 * @param rows
+	 *            行数
+	 * @param result
+	 *            操作结果，原样返回
+	 * @return R
+	 */
+	protected <R> R recordMetrics(String operation, long startNanos, long rows, R result) {
+		return recordMetrics(operation, startNanos, rows, result, null);
+	}
+
+	/**
+	 * <p>
+	 * 记录成功的操作，慢操作记录中包含 wrapper 的 SQL 片段及参数
+	 * </p>
+	 */
+	protected <R> R recordMetrics(String operation, long startNanos, long rows, R result, Wrapper<?> wrapper) {
+		record(operation, startNanos, rows, true, wrapper);
+		return result;
+	}
+
+	/**
+	 * <p>
+	 * 记录批量写入操作的批次大小
+	 * </p>
+	 */
+	protected void recordBatchSize(String operation, int batchSize) {
+		MetricsRegistry registry = metricsRegistry;
+		if (null != registry) {
+			registry.recordBatchSize(currentModelClass(), operation, batchSize);
+		}
+	}
+
+	/**
+	 * <p>
+	 * 记录失败的操作，返回原异常供调用方抛出
+	 * </p>
+	 */
+	protected RuntimeException recordFailure(String operation, long startNanos, RuntimeException e) {
+		return recordFailure(operation, startNanos, e, null);
+	}
+
+	protected RuntimeException recordFailure(String operation, long startNanos, RuntimeException e,
+			Wrapper<?> wrapper) {
+		record(operation, startNanos, 0, false, wrapper);
+		return e;
+	}
+
+	private void record(String operation, long startNanos, long rows, boolean success, Wrapper<?> wrapper) {
+		MetricsRegistry registry = metricsRegistry;
+		SlowOperationLog slowLog = slowOperationLog;
+		if (null == registry && null == slowLog) {
+			return;
+		}
+		long elapsedNanos = System.nanoTime() - startNanos;
+		Class<T> entityClass = currentModelClass();
+		if (null != registry) {
+			registry.record(entityClass, operation, elapsedNanos, rows, success);
+		}
+		if (null != slowLog && slowLog.isSlow(elapsedNanos)) {
+			slowLog.record(entityClass, operation, null == wrapper ? null : wrapper.getSqlSegment(),
+					null == wrapper ? null : wrapper.getParamNameValuePairs(), elapsedNanos, rows, success);
+		}
+	}
+
+	private static int rows(Integer rows) {
+		return null == rows ? 0 : rows;
+	}
+
+	/**
+	 * <p>
+	 * 统计 flushStatements 返回的影响行数，驱动返回 SUCCESS_NO_INFO 时按 1 行计
+	 * </p>
+	 *
+	 * @param batchResults
+	 *            批量执行结果
+	 * @return int
+	 */
+	protected static int affectedRows(List<BatchResult> batchResults) {
+		int rows = 0;
+		for (BatchResult batchResult : batchResults) {
+			for (int count : batchResult.getUpdateCounts()) {
+				rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+			}
+		}
+		return rows;
+	}
+
+	/**
+	 * 获取SqlStatement
+	 *
+	 * @param sqlMethod
+	 * @return
+	 */
+	protected String sqlStatement(SqlMethod sqlMethod) {
+		return SqlHelper.table(currentModelClass()).getSqlStatement(sqlMethod.getMethod());
+	}
+
+	@Override
+	public boolean insert(T entity) {
+		long start = System.nanoTime();
+		try {
+			Integer rows = baseMapper.insert(entity);
+			return recordMetrics("insert", start, rows(rows), retBool(rows));
+		} catch (RuntimeException e) {
+			throw recordFailure("insert", start, e);
+		} finally {
+			markWrite();
+		}
+	}
+
+	@Transactional(rollbackFor = Exception.class)
+	@Override
+	public boolean insertBatch(List<T> entityList) {
+		AdaptiveBatchSizer sizer = adaptiveBatchSizer;
+		if (null == sizer) {
+			return insertBatch(entityList, 30);
+		}
+		long start = System.nanoTime();
+		try {
+			boolean result = doInsertBatch(entityList, sizer);
+			return recordMetrics("insertBatch", start, entityList.size(), result);
+		} catch (RuntimeException e) {
+			throw recordFailure("insertBatch", start, e);
+		} finally {
+			markWrite();
+		}
+	}
+
+	/**
+	 * 批量插入
+	 *
+	 * @param entityList
+	 * @param batchSize
+	 * @return
+	 */
+	@Transactional(rollbackFor = Exception.class)
+	@Override
+	public boolean insertBatch(List<T> entityList, int batchSize) {
+		long start = System.nanoTime();
+		recordBatchSize("insertBatch", batchSize);
+		try {
+			boolean result = doInsertBatch(entityList, batchSize);
+			return recordMetrics("insertBatch", start, entityList.size(), result);
+		} catch (RuntimeException e) {
+			throw recordFailure("insertBatch", start, e);
+		} finally {
+			markWrite();
+		}
+	}
+
+	private boolean doInsertBatch(List<T> entityList, int batchSize) {
+		if (CollectionUtils.isEmpty(entityList)) {
+			throw new IllegalArgumentException("Error: entityList must not be empty");
+		}
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Error: batchSize must be positive");
+		}
+		try (SqlSession batchSqlSession = sqlSessionBatch()) {
+			int size = entityList.size();
+			String sqlStatement = sqlStatement(SqlMethod.INSERT_ONE);
+			for (int i = 0; i < size; i++) {
+				batchSqlSession.insert(sqlStatement, entityList.get(i));
+				if (i >= 1 && i % batchSize == 0) {
+					batchSqlSession.flushStatements();
+				}
+			}
+			batchSqlSession.flushStatements();
+		} catch (Throwable e) {
+			throw new MybatisPlusException("Error: Cannot execute insertBatch Method. Cause", e);
+		}
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * 按自适应批量大小分批插入，记录每批使用的批量大小；每批数据量按首行估算，避免逐行反射
+	 * </p>
+	 */
+	private boolean doInsertBatch(List<T> entityList, AdaptiveBatchSizer sizer) {
+		if (CollectionUtils.isEmpty(entityList)) {
+			throw new IllegalArgumentException("Error: entityList must not be empty");
+		}
+		Class<T> entityClass = currentModelClass();
+		TableInfo tableInfo = SqlHelper.table(entityClass);
+		try (SqlSession batchSqlSession = sqlSessionBatch()) {
+			int size = entityList.size();
+			String sqlStatement = sqlStatement(SqlMethod.INSERT_ONE);
+			Configuration configuration = batchSqlSession.getConfiguration();
+			int batchSize = sizer.batchSize(entityClass);
+			for (int from = 0; from < size;) {
+				int to = Math.min(size, from + batchSize);
+				recordBatchSize("insertBatch", batchSize);
+				for (int i = from; i < to; i++) {
+					batchSqlSession.insert(sqlStatement, entityList.get(i));
+				}
+				long payloadBytes = estimateRowBytes(configuration, tableInfo, entityList.get(from)) * (to - from);
+				long flushStart = System.nanoTime();
+				batchSqlSession.flushStatements();
+				batchSize = sizer.adjust(entityClass, to - from, System.nanoTime() - flushStart, payloadBytes);
+				from = to;
+			}
+		} catch (Throwable e) {
+			throw new MybatisPlusException("Error: Cannot execute insertBatch Method. Cause", e);
+		}
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * 估算单行写入的数据量：字符串按长度、byte[] 按字节数、其余非空值按 8 字节计
+	 * </p>
+	 */
+	private static long estimateRowBytes(Configuration configuration, TableInfo tableInfo, Object entity) {
+		MetaObject metaObject = configuration.newMetaObject(entity);
+		long bytes = estimateBytes(metaObject.getValue(tableInfo.getKeyProperty()));
+		for (TableFieldInfo fieldInfo : tableInfo.getFieldList()) {
+			bytes += estimateBytes(metaObject.getValue(fieldInfo.getProperty()));
+		}
+		return bytes;
+	}
+
+	private static long estimateBytes(Object value) {
+		if (null == value) {
+			return 0;
+		}
+		if (value instanceof CharSequence) {
+			return ((CharSequence) value).length();
+		}
+		if (value instanceof byte[]) {
+			return ((byte[]) value).length;
+		}
+		return 8;
+	}
+
+	@Transactional(rollbackFor = Exception.class)
+	@Override
+	public boolean insertBatchValues(List<T> entityList) {
+		return insertBatchValues(entityList, DEFAULT_MAX_PARAMETERS);
+	}
+
+	/**
+	 * 多值批量插入
+	 *
+	 * @param entityList
+	 * @param maxParameters
+	 * @return
+	 */
+	@Transactional(rollbackFor = Exception.class)
+	@Override
+	public boolean insertBatchValues(List<T> entityList, int maxParameters) {
+		long start = System.nanoTime();
+		try {
+			boolean result = doInsertBatchValues(entityList, maxParameters);
+			return recordMetrics("insertBatchValues", start, entityList.size(), result);
+		} catch (RuntimeException e) {
+			throw recordFailure("insertBatchValues", start, e);
+		} finally {
+			markWrite();
+		}
+	}
+
+	private boolean doInsertBatchValues(List<T> entityList, int maxParameters) {
+		if (CollectionUtils.isEmpty(entityList)) {
+			throw new IllegalArgumentException("Error: entityList must not be empty");
+		}
+		TableInfo tableInfo = SqlHelper.table(currentModelClass());
+		if (null != tableInfo.getKeySequence()) {
+			// 序列主键需逐行 selectKey，退化为普通批量插入
+			AdaptiveBatchSizer sizer = adaptiveBatchSizer;
+			return null == sizer ? doInsertBatch(entityList, 30) : doInsertBatch(entityList, sizer);
+		}
+		int rows = TableSqlBuilder.rowsPerStatement(tableInfo, maxParameters);
+		recordBatchSize("insertBatchValues", rows);
+		try {
+			valuesBatch(entityList, tableInfo, rows, null);
+		} catch (Throwable e) {
+			throw new MybatisPlusException("Error: Cannot execute insertBatchValues Method. Cause", e);
+		}
+		return true;
+	}
+
+	@Override
+	public ParallelBatchResult insertBatchParallel(List<T> entityList, int partitionSize) {
+		return insertBatchParallel(entityList, partitionSize, 30, false);
+	}
+
+	/**
+	 * 并行批量插入
+	 *
+	 * @param entityList
+	 * @param partitionSize
+	 * @param batchSize
+	 * @param bestEffort
+	 * @return
+	 */
+	@Override
+	public ParallelBatchResult insertBatchParallel(List<T> entityList, int partitionSize, int batchSize,
+			boolean bestEffort) {
+		long start = System.nanoTime();
+		recordBatchSize("insertBatchParallel", batchSize);
+		try {
+			ParallelBatchResult result = doInsertBatchParallel(entityList, partitionSize, batchSize, bestEffort);
+			return recordMetrics("insertBatchParallel", start, result.getAffectedRows(), result);
+		} catch (RuntimeException e) {
+			throw recordFailure("insertBatchParallel", start, e);
+		} finally {
+			markWrite();
+		}
+	}
+
+	private ParallelBatchResult doInsertBatchParallel(final List<T> entityList, int partitionSize,
+			final int batchSize, final boolean bestEffort) {
+		if (CollectionUtils.isEmpty(entityList)) {
+			throw new IllegalArgumentException("Error: entityList must not be empty");
+		}
+		if (partitionSize < 1 || batchSize < 1) {
+			throw new IllegalArgumentException("Error: partitionSize and batchSize must be positive");
+		}
+		final String sqlStatement = sqlStatement(SqlMethod.INSERT_ONE);
+		final AtomicBoolean aborted = new AtomicBoolean(false);
+		final Thread caller = Thread.currentThread();
+		int size = entityList.size();
+		List<PartitionResult> partitions = new ArrayList<>(size / partitionSize + 1);
+		ArrayDeque<Future<PartitionResult>> pending = new ArrayDeque<>();
+		for (int from = 0, index = 0; from < size; from += partitionSize, index++) {
+			final PartitionResult partition = new PartitionResult(index, from, Math.min(from + partitionSize, size));
+			Callable<PartitionResult> task = new Callable<PartitionResult>() {
+
+				@Override
+				public PartitionResult call() {
+					if (Thread.currentThread() == caller) {
+						// 线程池饱和时 CallerRunsPolicy 会在调用线程执行，调用线程可能处于事务中，拒绝执行后重新提交
+						throw new RejectedExecutionException("Error: partition must not run on the calling thread");
+					}
+					if (aborted.get()) {
+						return partition
+								.fail(new MybatisPlusException("Error: partition skipped after a previous failure"));
+					}
+					insertPartition(sqlStatement, entityList, partition, batchSize, bestEffort);
+					if (!bestEffort && !partition.isSuccess()) {
+						aborted.set(true);
+					}
+					return partition;
+				}
+			};
+			long retryMillis = 1;
+			while (true) {
+				Future<PartitionResult> future = submitPartition(task);
+				if (null != future) {
+					pending.add(future);
+					break;
+				}
+				if (!pending.isEmpty()) {
+					// 等待最早提交的分区完成后重新提交，形成背压
+					partitions.add(partitionResult(pending.poll()));
+					continue;
+				}
+				if (parallelExecutor().isShutdown()) {
+					// 线程池已关闭，重试不会成功
+					partitions.add(partition.fail(new RejectedExecutionException(
+							"Error: insertBatchParallel partition rejected by shut down parallel executor")));
+					if (!bestEffort) {
+						aborted.set(true);
+					}
+					break;
+				}
+				// 线程池被其他任务占满，退避后重新提交
+				try {
+					Thread.sleep(retryMillis);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new MybatisPlusException("Error: insertBatchParallel interrupted", e);
+				}
+				retryMillis = Math.min(retryMillis * 2, PARTITION_RETRY_MAX_MILLIS);
+			}
+		}
+		while (!pending.isEmpty()) {
+			partitions.add(partitionResult(pending.poll()));
+		}
+		return new ParallelBatchResult(partitions);
+	}
+
+	/**
+	 * <p>
+	 * 提交分区任务，被线程池拒绝（或被 CallerRunsPolicy 退回调用线程）时返回 null
+	 * </p>
+	 * <p>
+	 * 线程池已关闭时 CallerRunsPolicy、DiscardPolicy 会静默丢弃任务，返回的 Future 永远不会完成，因此不再提交
+	 * </p>
+	 */
+	private Future<PartitionResult> submitPartition(Callable<PartitionResult> task) {
+		ExecutorService executor = parallelExecutor();
+		if (executor.isShutdown()) {
+			return null;
+		}
+		Future<PartitionResult> future;
+		try {
+			future = executor.submit(task);
+		} catch (RejectedExecutionException e) {
+			return null;
+		}
+		if (future.isDone()) {
+			try {
+				future.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MybatisPlusException("Error: insertBatchParallel interrupted", e);
+			} catch (ExecutionException e) {
+				if (e.getCause() instanceof RejectedExecutionException) {
+					return null;
+				}
+			}
+		}
+		return future;
+	}
+
+	private PartitionResult partitionResult(Future<PartitionResult> future) {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new MybatisPlusException("Error: insertBatchParallel interrupted", e);
+		} catch (ExecutionException e) {
+			throw new MybatisPlusException("Error: Cannot execute insertBatchParallel Method. Cause", e.getCause());
+		}
+	}
+
+	/**
+	 * <p>
+	 * 在独立的批量 SqlSession 上插入一个分区，分区在自己的本地事务中提交
+	 * </p>
+	 * <p>
+	 * 分区不会在调用线程执行；若自定义线程池的工作线程处于 Spring 事务中，则直接参与该事务，不单独提交
+	 * </p>
+	 */
+	private void insertPartition(String sqlStatement, List<T> entityList, PartitionResult partition, int batchSize,
+			boolean bestEffort) {
+		boolean localTransaction = !TransactionSynchronizationManager.isActualTransactionActive();
+		try (SqlSession batchSqlSession = sqlSessionBatch()) {
+			Connection connection = batchSqlSession.getConnection();
+			boolean autoCommit = localTransaction && connection.getAutoCommit();
+			if (autoCommit) {
+				connection.setAutoCommit(false);
+			}
+			try {
+				int chunkFrom = partition.getFromIndex();
+				for (int i = partition.getFromIndex(); i < partition.getToIndex(); i++) {
+					batchSqlSession.insert(sqlStatement, entityList.get(i));
+					if (i + 1 - chunkFrom < batchSize && i + 1 < partition.getToIndex()) {
+						continue;
+					}
+					if (!bestEffort) {
+						partition.addAffectedRows(affectedRows(batchSqlSession.flushStatements()));
+					} else {
+						try {
+							int rows = affectedRows(batchSqlSession.flushStatements());
+							if (localTransaction) {
+								connection.commit();
+							}
+							partition.addAffectedRows(rows);
+						} catch (RuntimeException e) {
+							if (!localTransaction) {
+								throw e;
+							}
+							connection.rollback();
+							partition.addFailedRows(i + 1 - chunkFrom).setError(e);
+						}
+					}
+					chunkFrom = i + 1;
+				}
+				if (localTransaction && !bestEffort) {
+					connection.commit();
+				}
+			} catch (Throwable e) {
+				if (localTransaction) {
+					connection.rollback();
+				}
+				throw e;
+			} finally {
+				if (autoCommit) {
+					connection.setAutoCommit(true);
+				}
+			}
+		} catch (Throwable e) {
+			if (!bestEffort) {
+				partition.fail(e);
+			} else {
+				partition.setError(e).addFailedRows(
+						Math.max(0, partition.size() - partition.getAffectedRows() - partition.getFailedRows()));
+			}
+		}
+	}
+
+	@Transactional(rollbackFor = Exception.class)
+	@Override
+	public boolean upsertBatch(List<T> entityList) {
+		return upsertBatch(entityList, 500);
+	}
+
+	/**
+	 * 批量插入或更新
+	 *
+	 * @param entityList
+	 * @param batchSize
+	 * @return
+	 */
+	@Transactional(rollbackFor = Exception.class)
+	@Override
+	public boolean upsertBatch(List<T> entityList, int batchSize) {
+		long start = System.nanoTime();
+		recordBatchSize("upsertBatch", batchSize);
+		try {
+			boolean result = doUpsertBatch(entityList, batchSize);
+			return recordMetrics("upsertBatch", start, entityList.size(), result);
+		} catch (RuntimeException e) {
+			throw recordFailure("upsertBatch", start, e);
+		} finally {
+			markWrite();
+		}
+	}
+
+	private boolean doUpsertBatch(List<T> entityList, int batchSize) {
+		if (CollectionUtils.isEmpty(entityList)) {
+			throw new IllegalArgumentException("Error: entityList must not be empty");
+		}
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Error: batchSize must be positive");
+		}
+		TableInfo tableInfo = SqlHelper.table(currentModelClass());
+		DbType dbType = dbType();
+		int rows = Math.min(batchSize, TableSqlBuilder.rowsPerStatement(tableInfo, DEFAULT_MAX_PARAMETERS));
+		List<Serializable> ids = entityIds(entityList);
+		evictCache(ids);
+		try {
+			valuesBatch(entityList, tableInfo, rows, dbType);
+		} catch (Throwable e) {
+			throw new MybatisPlusException("Error: Cannot execute upsertBatch Method. Cause", e);
+		} finally {
+			evictCacheAfterWrite(ids);
+		}
+		return true;
+	}
+
+	/**
+	 * <p>
+	 * 按 rows 行一条多值语句执行插入，upsertDbType 不为空时执行对应方言的插入或更新
+	 * </p>
+	 * <p>
+	 * 每 {@value #VALUES_STATEMENTS_PER_FLUSH} 条语句作为一个 JDBC 批次提交
+	 * </p>
+	 */
+	private void valuesBatch(List<T> entityList, TableInfo tableInfo, int rows, DbType upsertDbType) {
+		try (SqlSession batchSqlSession = sqlSessionBatch()) {
+			int size = entityList.size();
+			String sqlStatement = SqlScriptHelper.statement(batchSqlSession.getConfiguration(), SqlScriptHelper.INSERT);
+			Class<?> keyType = null == upsertDbType || StringUtils.isEmpty(tableInfo.getKeyProperty()) ? null
+					: batchSqlSession.getConfiguration().getReflectorFactory().findForClass(currentModelClass())
+							.getGetterType(tableInfo.getKeyProperty());
+			String sql = null;
+			int sqlRows = 0;
+			int statements = 0;
+			for (int from = 0; from < size; from += rows) {
+				int to = Math.min(from + rows, size);
+				if (to - from != sqlRows) {
+					sqlRows = to - from;
+					sql = null == upsertDbType ? TableSqlBuilder.insertValues(tableInfo, sqlRows)
+							: TableSqlBuilder.upsertValues(upsertDbType, tableInfo, keyType, sqlRows);
+				}
+				Map<String, Object> param = new HashMap<>(4);
+				param.put(SqlRunner.SQL, sql);
+				param.put(TableSqlBuilder.LIST, entityList.subList(from, to));
+				batchSqlSession.insert(sqlStatement, param);
+				if (++statements % VALUES_STATEMENTS_PER_FLUSH == 0) {
+					batchSqlSession.flushStatements();
+				}
+			}
+			batchSqlSession.flushStatements();
+		}
+	}
+
+	@Transactional(rollbackFor = Exception.class)
+	@Override
+	public long bulkLoad(Iterable<T> entities) {
+		long start = System.nanoTime();
+		try {
+			long rows = doBulkLoad(entities);
+			return recordMetrics("bulkLoad", start, rows, rows);
+		} catch (RuntimeException e) {
+			throw recordFailure("bulkLoad", start, e);
+		} finally {
+			markWrite();
+		}
+	}
+
+	private long doBulkLoad(Iterable<T> entities) {
+		if (null == entities || entities instanceof Collection && ((Collection<?>) entities).isEmpty()) {
+			throw new IllegalArgumentException("Error: entities must not be empty");
+		}
+		DbType dbType = dbType();
+		if (!BulkLoadHelper.isSupported(dbType)) {
+			throw new MybatisPlusException("Error: bulkLoad is not supported for dbType " + dbType);
+		}
+		final Configuration configuration = sqlSessionFactory().getConfiguration();
+		final TableInfo tableInfo = SqlHelper.table(currentModelClass());
+		final MetaObjectHandler metaObjectHandler = GlobalConfigUtils.getMetaObjectHandler(configuration);
+		// 编码前逐行生成主键并执行插入填充
+		BulkLoadHelper.RowPreparer preparer = new BulkLoadHelper.RowPreparer() {
+
+			@Override
+			public void prepare(MetaObject metaObject) {
+				IdHelper.assignId(tableInfo, metaObject);
+				if (null != metaObjectHandler && metaObjectHandler.openInsertFill()) {
+					metaObjectHandler.insertFill(metaObject);
+				}
+			}
+		};
+		DataSource dataSource = configuration.getEnvironment().getDataSource();
+		Connection connection = DataSourceUtils.getConnection(dataSource);
+		try {
+			return BulkLoadHelper.load(connection, dbType, configuration, tableInfo, entities.iterator(),
+					preparer);
+		} catch (Throwable e) {
+			throw new MybatisPlusException("Error: Cannot execute bulkLoad Method. Cause", e);
+		} finally {
+			DataSourceUtils.releaseConnection(connection, dataSource);
+		}
+	}
+
+	@Override
+	public boolean deleteById(Serializable id) {
+		long start = System.nanoTime();
+		List<Serializable> ids = Collections.singletonList(id);
+		try {
+			evictCache(ids);
+			Integer rows = baseMapper.deleteById(id);
+			return recordMetrics("deleteById", start, rows(rows), SqlHelper.delBool(rows));
+		} catch (RuntimeException e) {
+			throw recordFailure("deleteById", start, e);
+		} finally {
+			evictCacheAfterWrite(ids);
+			markWrite();
+		}
+	}
+
+	@Override
+	public boolean delete(Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			evictCache(null);
+			Integer rows = baseMapper.delete(wrapper);
+			return recordMetrics("delete", start, rows(rows), SqlHelper.delBool(rows), wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("delete", start, e, wrapper);
+		} finally {
+			evictCacheAfterWrite(null);
+			markWrite();
+		}
+	}
+
+	@Transactional(rollbackFor = Exception.class)
+	@Override
+	public boolean deleteBatchIds(Collection<? extends Serializable> idList) {
+		long start = System.nanoTime();
+		try {
+			int rows = doDeleteBatchIds(idList);
+			return recordMetrics("deleteBatchIds", start, rows, SqlHelper.delBool(rows));
+		} catch (RuntimeException e) {
+			throw recordFailure("deleteBatchIds", start, e);
+		} finally {
+			markWrite();
+		}
+	}
+
+	private int doDeleteBatchIds(Collection<? extends Serializable> idList) {
+		evictCache(idList);
+		try {
+			int chunkSize = idChunkSize;
+			if (CollectionUtils.isEmpty(idList) || idList.size() <= chunkSize) {
+				return rows(baseMapper.deleteBatchIds(idList));
+			}
+			List<Serializable> ids = new ArrayList<>(idList);
+			int size = ids.size();
+			int rows = 0;
+			for (int from = 0; from < size; from += chunkSize) {
+				rows += rows(baseMapper.deleteBatchIds(ids.subList(from, Math.min(from + chunkSize, size))));
+			}
+			return rows;
+		} finally {
+			evictCacheAfterWrite(idList);
+		}
+	}
+
+	@Transactional(rollbackFor = Exception.class)
+	@Override
+	public int deleteBatchIds(Collection<? extends Serializable> idList, int batchSize) {
+		long start = System.nanoTime();
+		recordBatchSize("deleteBatchIds", batchSize);
+		try {
+			int result = doDeleteBatchIds(idList, batchSize);
+			return recordMetrics("deleteBatchIds", start, result, result);
+		} catch (RuntimeException e) {
+			throw recordFailure("deleteBatchIds", start, e);
+		} finally {
+			markWrite();
+		}
+	}
+
+	private int doDeleteBatchIds(Collection<? extends Serializable> idList, int batchSize) {
+		if (CollectionUtils.isEmpty(idList)) {
+			throw new IllegalArgumentException("Error: idList must not be empty");
+		}
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Error: batchSize must be positive");
+		}
+		evictCache(idList);
+		int rows = 0;
+		try (SqlSession batchSqlSession = sqlSessionBatch()) {
+			String sqlStatement = sqlStatement(SqlMethod.DELETE_BY_ID);
+			int i = 0;
+			for (Serializable id : idList) {
+				batchSqlSession.delete(sqlStatement, id);
+				if (++i % batchSize == 0) {
+					rows += affectedRows(batchSqlSession.flushStatements());
+				}
+			}
+			rows += affectedRows(batchSqlSession.flushStatements());
+		} catch (Throwable e) {
+			throw new MybatisPlusException("Error: Cannot execute deleteBatchIds Method. Cause", e);
+		} finally {
+			evictCacheAfterWrite(idList);
+		}
+		return rows;
+	}
+
+	@Override
+	public boolean updateById(T entity) {
+		long start = System.nanoTime();
+		List<Serializable> ids = Collections.singletonList(entityId(entity));
+		try {
+			evictCache(ids);
+			Integer rows = doUpdateById(entity);
+			return recordMetrics("updateById", start, rows(rows), retBool(rows));
+		} catch (RuntimeException e) {
+			throw recordFailure("updateById", start, e);
+		} finally {
+			evictCacheAfterWrite(ids);
+			markWrite();
+		}
+	}
+
+	/**
+	 * <p>
+	 * 开启修改跟踪且实体有快照时只更新修改过的字段
+	 * </p>
+	 */
+	private Integer doUpdateById(T entity) {
+		EntitySnapshots snapshots = entitySnapshots;
+		Object[] snapshot = null == snapshots || null == entity ? null : snapshots.get(entity);
+		if (null == snapshot || isVersioned()) {
+			Integer rows = baseMapper.updateById(entity);
+			if (null != snapshot && retBool(rows)) {
+				snapshots.put(entity, snapshot(entity));
+			}
+			return rows;
+		}
+		Configuration configuration = sqlSessionFactory().getConfiguration();
+		TableInfo tableInfo = SqlHelper.table(currentModelClass());
+		MetaObject metaObject = configuration.newMetaObject(entity);
+		if (changedFields(tableInfo, metaObject, snapshot, false).isEmpty()) {
+			return 1;
+		}
+		// 先执行更新填充，填充的字段一并更新
+		MetaObjectHandler metaObjectHandler = GlobalConfigUtils.getMetaObjectHandler(configuration);
+		if (null != metaObjectHandler && metaObjectHandler.openUpdateFill()) {
+			metaObjectHandler.updateFill(metaObject);
+		}
+		Map<String, Object> param = new HashMap<>(4);
+		param.put(SqlRunner.SQL, TableSqlBuilder.updateById(tableInfo, changedFields(tableInfo, metaObject, snapshot, true)));
+		param.put(TableSqlBuilder.ENTITY, entity);
+		SqlSession sqlSession = sqlSession();
+		int rows = sqlSession.update(SqlScriptHelper.statement(sqlSession.getConfiguration(), SqlScriptHelper.UPDATE),
+				param);
+		if (rows > 0) {
+			snapshots.put(entity, snapshot(entity));
+		}
+		return rows;
+	}
+
+	/**
+	 * <p>
+	 * 与快照相比修改过的字段
+	 * </p>
+	 *
+	 * @param withUpdateExpression
+	 *            是否包含配置了 update 表达式的字段（与 updateById 一致每次更新）
+	 */
+	private static List<TableFieldInfo> changedFields(TableInfo tableInfo, MetaObject metaObject, Object[] snapshot,
+			boolean withUpdateExpression) {
+		List<TableFieldInfo> fieldList = tableInfo.getFieldList();
+		List<TableFieldInfo> changed = new ArrayList<>();
+		for (int i = 0; i < fieldList.size(); i++) {
+			TableFieldInfo fieldInfo = fieldList.get(i);
+			if (StringUtils.isNotEmpty(fieldInfo.getUpdate())) {
+				if (withUpdateExpression && FieldFill.UPDATE != fieldInfo.getFieldFill()
+						&& FieldFill.INSERT_UPDATE != fieldInfo.getFieldFill()) {
+					changed.add(fieldInfo);
+				}
+			} else if (!Objects.deepEquals(snapshot[i], metaObject.getValue(fieldInfo.getProperty()))) {
+				changed.add(fieldInfo);
+			}
+		}
+		return changed;
+	}
+
+	/**
+	 * <p>
+	 * 开启修改跟踪时记录实体的属性快照
+	 * </p>
+	 */
+	private T track(T entity) {
+		EntitySnapshots snapshots = entitySnapshots;
+		if (null != snapshots && null != entity) {
+			snapshots.track(entity, snapshot(entity));
+		}
+		return entity;
+	}
+
+	private <C extends Collection<T>> C trackAll(C entities) {
+		if (null != entitySnapshots && null != entities) {
+			for (T entity : entities) {
+				track(entity);
+			}
+		}
+		return entities;
+	}
+
+	/**
+	 * <p>
+	 * 按 TableInfo 字段顺序复制属性值，Date、byte[] 等可变值复制副本
+	 * </p>
+	 * <p>
+	 * 与 doUpdateById 比较时使用同一 Configuration 创建的 MetaObject，属性按相同方式读取
+	 * </p>
+	 */
+	private Object[] snapshot(T entity) {
+		List<TableFieldInfo> fieldList = SqlHelper.table(currentModelClass()).getFieldList();
+		MetaObject metaObject = sqlSessionFactory().getConfiguration().newMetaObject(entity);
+		Object[] values = new Object[fieldList.size()];
+		for (int i = 0; i < values.length; i++) {
+			Object value = metaObject.getValue(fieldList.get(i).getProperty());
+			if (value instanceof Date) {
+				value = ((Date) value).clone();
+			} else if (value instanceof byte[]) {
+				value = ((byte[]) value).clone();
+			}
+			values[i] = value;
+		}
+		return values;
+	}
+
+	private boolean isVersioned() {
+		Boolean current = versioned;
+		if (null == current) {
+			current = false;
+			for (Field field : ReflectionKit.getFieldList(currentModelClass())) {
+				if (field.isAnnotationPresent(Version.class)) {
+					current = true;
+					break;
+				}
+			}
+			versioned = current;
+		}
+		return current;
+	}
+
+	@Transactional(rollbackFor = Exception.class)
+	@Override
+	public int updateBatchById(List<T> entityList) {
+		return updateBatchById(entityList, 30);
+	}
+
+	/**
+	 * 根据 ID 批量更新
+	 *
+	 * @param entityList
+	 * @param batchSize
+	 * @return
+	 */
+	@Transactional(rollbackFor = Exception.class)
+	@Override
+	public int updateBatchById(List<T> entityList, int batchSize) {
+		long start = System.nanoTime();
+		recordBatchSize("updateBatchById", batchSize);
+		try {
+			int result = doUpdateBatchById(entityList, batchSize);
+			return recordMetrics("updateBatchById", start, result, result);
+		} catch (RuntimeException e) {
+			throw recordFailure("updateBatchById", start, e);
+		} finally {
+			markWrite();
+		}
+	}
+
+	private int doUpdateBatchById(List<T> entityList, int batchSize) {
+		if (CollectionUtils.isEmpty(entityList)) {
+			throw new IllegalArgumentException("Error: entityList must not be empty");
+		}
+		if (batchSize < 1) {
+			throw new IllegalArgumentException("Error: batchSize must be positive");
+		}
+		List<Serializable> ids = entityIds(entityList);
+		evictCache(ids);
+		int rows = 0;
+		try (SqlSession batchSqlSession = sqlSessionBatch()) {
+			int size = entityList.size();
+			String sqlStatement = sqlStatement(SqlMethod.UPDATE_BY_ID);
+			for (int i = 0; i < size; i++) {
+				MapperMethod.ParamMap<T> param = new MapperMethod.ParamMap<>();
+				param.put("et", entityList.get(i));
+				batchSqlSession.update(sqlStatement, param);
+				if ((i + 1) % batchSize == 0) {
+					rows += affectedRows(batchSqlSession.flushStatements());
+				}
+			}
+			rows += affectedRows(batchSqlSession.flushStatements());
+		} catch (Throwable e) {
+			throw new MybatisPlusException("Error: Cannot execute updateBatchById Method. Cause", e);
+		} finally {
+			evictCacheAfterWrite(ids);
+		}
+		return rows;
+	}
+
+	@Override
+	public boolean updateByWrapper(T entity, Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			evictCache(null);
+			Integer rows = baseMapper.update(entity, wrapper);
+			return recordMetrics("updateByWrapper", start, rows(rows), retBool(rows), wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("updateByWrapper", start, e, wrapper);
+		} finally {
+			evictCacheAfterWrite(null);
+			markWrite();
+		}
+	}
+
+	@Override
+	public long deleteChunked(Wrapper<T> wrapper, ChunkOptions options) {
+		long start = System.nanoTime();
+		try {
+			long rows = doChunked("deleteChunked", true, null, wrapper, options);
+			return recordMetrics("deleteChunked", start, rows, rows, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("deleteChunked", start, e, wrapper);
+		} finally {
+			markWrite();
+		}
+	}
+
+	@Override
+	public long updateByWrapperChunked(T entity, Wrapper<T> wrapper, ChunkOptions options) {
+		long start = System.nanoTime();
+		try {
+			long rows = doChunked("updateByWrapperChunked", false, entity, wrapper, options);
+			return recordMetrics("updateByWrapperChunked", start, rows, rows, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("updateByWrapperChunked", start, e, wrapper);
+		} finally {
+			markWrite();
+		}
+	}
+
+	/**
+	 * <p>
+	 * 按主键顺序分批选取满足条件的主键，再按主键删除或更新，每条语句单独提交
+	 * </p>
+	 * <p>
+	 * 下一批从上一批最大主键之后开始选取，已处理的行不会被重复扫描；选取固定走主库，避免只读副本延迟导致遗漏
+	 * </p>
+	 */
+	private long doChunked(String operation, boolean delete, T entity, Wrapper<T> wrapper, ChunkOptions options) {
+		if (TransactionSynchronizationManager.isActualTransactionActive()) {
+			throw new IllegalStateException("Error: " + operation + " must not run inside a transaction");
+		}
+		TableInfo tableInfo = SqlHelper.table(currentModelClass());
+		String keyColumn = tableInfo.getKeyColumn();
+		if (StringUtils.isEmpty(keyColumn)) {
+			throw new MybatisPlusException("Error: " + operation + " requires a primary key on " + tableInfo.getTableName());
+		}
+		if (null == options) {
+			options = new ChunkOptions();
+		}
+		WrapperCondition<T> condition = new WrapperCondition<>(operation, wrapper);
+		ChunkProgressListener listener = options.getListener();
+		long total = 0;
+		Object lastKey = null;
+		for (int chunk = 1;; chunk++) {
+			long chunkStart = System.nanoTime();
+			Wrapper<T> select = condition.newWrapper();
+			if (null != lastKey) {
+				select.gt(keyColumn, lastKey);
+			}
+			select.setSqlSelect(keyColumn).orderBy(keyColumn, true);
+			List<Map<String, Object>> keys = baseMapper.selectMapsPage(new RowBounds(0, options.getChunkSize()), select);
+			if (keys.isEmpty()) {
+				return total;
+			}
+			List<Serializable> ids = new ArrayList<>(keys.size());
+			for (Map<String, Object> key : keys) {
+				ids.add(keyValue(key, keyColumn));
+			}
+			lastKey = ids.get(ids.size() - 1);
+			Wrapper<T> target = condition.newWrapper().in(keyColumn, ids);
+			int rows = rows(delete ? baseMapper.delete(target) : baseMapper.update(entity, target));
+			evictCache(ids);
+			total += rows;
+			if (null != listener && !listener.onChunk(chunk, rows, total)) {
+				return total;
+			}
+			if (ids.size() < options.getChunkSize()) {
+				return total;
+			}
+			long pause = options.pauseMillis(System.nanoTime() - chunkStart);
+			if (pause > 0) {
+				try {
+					Thread.sleep(pause);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					throw new MybatisPlusException("Error: " + operation + " interrupted", e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * <p>
+	 * 按主键列名（忽略大小写及引用符）取出主键值，分页方言附加的列（如 Oracle 的 ROW_ID、SQL Server 2005 的 __row_number__）被忽略
+	 * </p>
+	 */
+	static Serializable keyValue(Map<String, Object> row, String keyColumn) {
+		String column = unquote(keyColumn);
+		for (Map.Entry<String, Object> entry : row.entrySet()) {
+			if (column.equalsIgnoreCase(unquote(entry.getKey()))) {
+				return (Serializable) entry.getValue();
+			}
+		}
+		if (row.size() == 1) {
+			return (Serializable) row.values().iterator().next();
+		}
+		throw new MybatisPlusException("Error: Cannot find key column " + keyColumn + " in " + row.keySet());
+	}
+
+	private static String unquote(String column) {
+		int length = column.length();
+		if (length > 1 && "`\"[".indexOf(column.charAt(0)) >= 0 && "`\"]".indexOf(column.charAt(length - 1)) >= 0) {
+			return column.substring(1, length - 1);
+		}
+		return column;
+	}
+
+	@Override
+	public T selectById(Serializable id) {
+		long start = System.nanoTime();
+		try {
+			T result = track(doSelectById(id));
+			return recordMetrics("selectById", start, null == result ? 0 : 1, result);
+		} catch (RuntimeException e) {
+			throw recordFailure("selectById", start, e);
+		}
+	}
+
+	private T doSelectById(Serializable id) {
+		EntityCache<T> cache = entityCache;
+		T entity = null == cache ? null : cache.get(id);
+		if (null == entity) {
+			SelectByIdCoalescer<T> coalescer = selectByIdCoalescer;
+			// 事务中或刚写入后需读取主库的最新数据，不合并
+			if (null != coalescer && !readFromPrimary()) {
+				entity = coalescer.selectById(id);
+			} else {
+				entity = readMapper().selectById(id);
+			}
+			if (null != cache) {
+				cache.put(id, entity);
+			}
+		}
+		return entity;
+	}
+
+	@Override
+	public List<T> selectBatchIds(Collection<? extends Serializable> idList) {
+		long start = System.nanoTime();
+		try {
+			List<T> result = trackAll(doSelectBatchIds(idList));
+			return recordMetrics("selectBatchIds", start, result.size(), result);
+		} catch (RuntimeException e) {
+			throw recordFailure("selectBatchIds", start, e);
+		}
+	}
+
+	private List<T> doSelectBatchIds(Collection<? extends Serializable> idList) {
+		if (CollectionUtils.isEmpty(idList)) {
+			return readMapper().selectBatchIds(idList);
+		}
+		EntityCache<T> cache = entityCache;
+		Map<String, T> entityMap = new HashMap<>(idList.size() * 4 / 3 + 1);
+		Map<String, Serializable> missIds = new LinkedHashMap<>();
+		for (Serializable id : idList) {
+			String key = String.valueOf(id);
+			if (entityMap.containsKey(key) || missIds.containsKey(key)) {
+				continue;
+			}
+			T entity = null == cache ? null : cache.get(id);
+			if (null == entity) {
+				missIds.put(key, id);
+			} else {
+				entityMap.put(key, entity);
+			}
+		}
+		if (!missIds.isEmpty()) {
+			for (T entity : loadBatchIds(new ArrayList<>(missIds.values()))) {
+				Serializable id = entityId(entity);
+				entityMap.put(String.valueOf(id), entity);
+				if (null != cache) {
+					cache.put(id, entity);
+				}
+			}
+		}
+		// 按调用方的主键顺序返回
+		List<T> entityList = new ArrayList<>(entityMap.size());
+		for (Serializable id : idList) {
+			T entity = entityMap.remove(String.valueOf(id));
+			if (null != entity) {
+				entityList.add(entity);
+			}
+		}
+		return entityList;
+	}
+
+	/**
+	 * <p>
+	 * 按 idChunkSize 拆分 IN 条件查询，开启并行且不在事务中时各批次在线程池中并行执行
+	 * </p>
+	 */
+	List<T> loadBatchIds(List<Serializable> idList) {
+		int chunkSize = idChunkSize;
+		int size = idList.size();
+		// 在调用线程确定读主库还是副本，并行批次在线程池中执行
+		final M mapper = readMapper();
+		if (size <= chunkSize) {
+			return mapper.selectBatchIds(idList);
+		}
+		List<T> entityList = new ArrayList<>(size);
+		if (!parallelIdChunks || TransactionSynchronizationManager.isActualTransactionActive()) {
+			for (int from = 0; from < size; from += chunkSize) {
+				entityList.addAll(mapper.selectBatchIds(idList.subList(from, Math.min(from + chunkSize, size))));
+			}
+			return entityList;
+		}
+		List<Future<List<T>>> futures = new ArrayList<>(size / chunkSize + 1);
+		for (int from = 0; from < size; from += chunkSize) {
+			final List<Serializable> chunk = idList.subList(from, Math.min(from + chunkSize, size));
+			futures.add(parallelExecutor().submit(new Callable<List<T>>() {
+
+				@Override
+				public List<T> call() {
+					return mapper.selectBatchIds(chunk);
+				}
+			}));
+		}
+		for (Future<List<T>> future : futures) {
+			try {
+				entityList.addAll(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MybatisPlusException("Error: selectBatchIds interrupted", e);
+			} catch (ExecutionException e) {
+				throw new MybatisPlusException("Error: Cannot execute selectBatchIds Method. Cause", e.getCause());
+			}
+		}
+		return entityList;
+	}
+
+	@Override
+	public T selectOne(Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			// 取 2 行，保留多条结果时的警告
+			T entity = track(SqlHelper.getObject(readMapper().selectPage(limitRows(wrapper, 2), wrapper)));
+			return recordMetrics("selectOne", start, null == entity ? 0 : 1, entity, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("selectOne", start, e, wrapper);
+		}
+	}
+
+	@Override
+	public T selectFirst(Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			List<T> list = trackAll(readMapper().selectPage(limitRows(wrapper, 1), wrapper));
+			return recordMetrics("selectFirst", start, list.size(), list.isEmpty() ? null : list.get(0), wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("selectFirst", start, e, wrapper);
+		}
+	}
+
+	@Override
+	public boolean exists(Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			List<Object> list = readSqlSession().selectList(sqlStatement(SqlMethod.SELECT_OBJS), wrapperParam(wrapper),
+					limitRows(wrapper, 1));
+			return recordMetrics("exists", start, list.size(), !list.isEmpty(), wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("exists", start, e, wrapper);
+		}
+	}
+
+	/**
+	 * <p>
+	 * 限制读取行数的 RowBounds，配置分页插件时转换为数据库方言的 LIMIT，否则 MyBatis 读取 limit 行后停止
+	 * </p>
+	 * <p>
+	 * wrapper 已通过 last 等拼接 LIMIT 时不再分页，避免分页插件重复追加 LIMIT
+	 * </p>
+	 */
+	private static RowBounds limitRows(Wrapper<?> wrapper, int limit) {
+		String segment = null == wrapper ? null : wrapper.getSqlSegment();
+		if (StringUtils.isNotEmpty(segment) && ROW_LIMIT.matcher(segment).find()) {
+			return RowBounds.DEFAULT;
+		}
+		return new RowBounds(0, limit);
+	}
+
+	@Override
+	public int selectCount(Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			int count = SqlHelper.retCount(readMapper().selectCount(wrapper));
+			return recordMetrics("selectCount", start, count, count, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("selectCount", start, e, wrapper);
+		}
+	}
+
+	@Override
+	public List<T> selectList(Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			List<T> list = trackAll(readMapper().selectList(wrapper));
+			return recordMetrics("selectList", start, list.size(), list, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("selectList", start, e, wrapper);
+		}
+	}
+
+	@Override
+	public List<Map<String, Object>> selectColumns(Wrapper<T> wrapper, String... columns) {
+		long start = System.nanoTime();
+		wrapper = projection(wrapper, columns);
+		String sqlSelect = wrapper.getSqlSelect();
+		try {
+			wrapper.setSqlSelect(columns);
+			List<Map<String, Object>> list = readMapper().selectMaps(wrapper);
+			return recordMetrics("selectColumns", start, list.size(), list, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("selectColumns", start, e, wrapper);
+		} finally {
+			restoreSqlSelect(wrapper, sqlSelect);
+		}
+	}
+
+	@Override
+	public <R> List<R> selectColumns(Class<R> resultType, Wrapper<T> wrapper, String... columns) {
+		long start = System.nanoTime();
+		wrapper = projection(wrapper, columns);
+		String sqlSelect = wrapper.getSqlSelect();
+		try {
+			wrapper.setSqlSelect(columns);
+			SqlSession sqlSession = readSqlSession();
+			String statement = SqlScriptHelper.resultStatement(sqlSession.getConfiguration(),
+					sqlStatement(SqlMethod.SELECT_MAPS), resultType);
+			List<R> list = sqlSession.selectList(statement, wrapperParam(wrapper));
+			return recordMetrics("selectColumns", start, list.size(), list, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("selectColumns", start, e, wrapper);
+		} finally {
+			restoreSqlSelect(wrapper, sqlSelect);
+		}
+	}
+
+	@Override
+	public long[] selectLongs(Wrapper<T> wrapper, String column) {
+		long start = System.nanoTime();
+		try {
+			List<Object> values = selectColumnValues(wrapper, column);
+			long[] result = new long[values.size()];
+			int size = 0;
+			for (Object value : values) {
+				if (null != value) {
+					result[size++] = number(column, value).longValue();
+				}
+			}
+			result = size == result.length ? result : Arrays.copyOf(result, size);
+			return recordMetrics("selectLongs", start, size, result, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("selectLongs", start, e, wrapper);
+		}
+	}
+
+	@Override
+	public double[] selectDoubles(Wrapper<T> wrapper, String column) {
+		long start = System.nanoTime();
+		try {
+			List<Object> values = selectColumnValues(wrapper, column);
+			double[] result = new double[values.size()];
+			int size = 0;
+			for (Object value : values) {
+				if (null != value) {
+					result[size++] = number(column, value).doubleValue();
+				}
+			}
+			result = size == result.length ? result : Arrays.copyOf(result, size);
+			return recordMetrics("selectDoubles", start, size, result, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("selectDoubles", start, e, wrapper);
+		}
+	}
+
+	@Override
+	public long aggregateLong(Aggregate aggregate, String column, Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			Object value = selectAggregate("aggregateLong", aggregate, column, wrapper);
+			long result = null == value ? 0 : number(column, value).longValue();
+			return recordMetrics("aggregateLong", start, 1, result, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("aggregateLong", start, e, wrapper);
+		}
+	}
+
+	@Override
+	public double aggregateDouble(Aggregate aggregate, String column, Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			Object value = selectAggregate("aggregateDouble", aggregate, column, wrapper);
+			double result = null == value ? Double.NaN : number(column, value).doubleValue();
+			return recordMetrics("aggregateDouble", start, 1, result, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("aggregateDouble", start, e, wrapper);
+		}
+	}
+
+	@Override
+	public GroupedLongs aggregateLongBy(Aggregate aggregate, String column, String groupColumn, Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			List<AggregateRow> rows = selectAggregateRows("aggregateLongBy", aggregate, column, groupColumn, wrapper);
+			List<Object> keys = new ArrayList<>(rows.size());
+			long[] values = new long[rows.size()];
+			for (int i = 0; i < values.length; i++) {
+				// 分组值及聚合值均为 NULL 时 MyBatis 返回 null 行
+				AggregateRow row = rows.get(i);
+				Object value = null == row ? null : row.aggValue;
+				keys.add(null == row ? null : row.groupKey);
+				values[i] = null == value ? 0 : number(column, value).longValue();
+			}
+			return recordMetrics("aggregateLongBy", start, values.length, new GroupedLongs(keys, values), wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("aggregateLongBy", start, e, wrapper);
+		}
+	}
+
+	@Override
+	public GroupedDoubles aggregateDoubleBy(Aggregate aggregate, String column, String groupColumn,
+			Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			List<AggregateRow> rows = selectAggregateRows("aggregateDoubleBy", aggregate, column, groupColumn, wrapper);
+			List<Object> keys = new ArrayList<>(rows.size());
+			double[] values = new double[rows.size()];
+			for (int i = 0; i < values.length; i++) {
+				AggregateRow row = rows.get(i);
+				Object value = null == row ? null : row.aggValue;
+				keys.add(null == row ? null : row.groupKey);
+				values[i] = null == value ? Double.NaN : number(column, value).doubleValue();
+			}
+			return recordMetrics("aggregateDoubleBy", start, values.length, new GroupedDoubles(keys, values), wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("aggregateDoubleBy", start, e, wrapper);
+		}
+	}
+
+	/**
+	 * <p>
+	 * 查询单个聚合值，在复制了 wrapper 条件的新 wrapper 上执行
+	 * </p>
+	 */
+	private Object selectAggregate(String operation, Aggregate aggregate, String column, Wrapper<T> wrapper) {
+		Wrapper<T> select = new WrapperCondition<>(operation, wrapper).newWrapper();
+		select.setSqlSelect(aggregate.sql(column));
+		List<Object> values = readMapper().selectObjs(select);
+		return values.isEmpty() ? null : values.get(0);
+	}
+
+	/**
+	 * <p>
+	 * 分组查询聚合值，按分组列升序
+	 * </p>
+	 */
+	private List<AggregateRow> selectAggregateRows(String operation, Aggregate aggregate, String column,
+			String groupColumn, Wrapper<T> wrapper) {
+		Wrapper<T> select = new WrapperCondition<>(operation, wrapper).newWrapper();
+		select.setSqlSelect(groupColumn + " AS groupKey, " + aggregate.sql(column) + " AS aggValue");
+		select.groupBy(groupColumn).orderBy(groupColumn, true);
+		SqlSession sqlSession = readSqlSession();
+		String statement = SqlScriptHelper.resultStatement(sqlSession.getConfiguration(),
+				sqlStatement(SqlMethod.SELECT_MAPS), AggregateRow.class);
+		return sqlSession.selectList(statement, wrapperParam(select));
+	}
+
+	private List<Object> selectColumnValues(Wrapper<T> wrapper, String column) {
+		wrapper = projection(wrapper, column);
+		String sqlSelect = wrapper.getSqlSelect();
+		try {
+			wrapper.setSqlSelect(column);
+			return readMapper().selectObjs(wrapper);
+		} finally {
+			restoreSqlSelect(wrapper, sqlSelect);
+		}
+	}
+
+	private static Number number(String column, Object value) {
+		if (value instanceof Number) {
+			return (Number) value;
+		}
+		throw new MybatisPlusException("Error: column " + column + " is not numeric, value type " + value.getClass().getName());
+	}
+
+	/**
+	 * <p>
+	 * 校验查询列，wrapper 为空时新建，避免修改共享的 {@link Condition#EMPTY}
+	 * </p>
+	 */
+	private Wrapper<T> projection(Wrapper<T> wrapper, String... columns) {
+		if (null == columns || columns.length == 0) {
+			throw new IllegalArgumentException("Error: columns must not be empty");
+		}
+		return SqlHelper.isEmptyOfWrapper(wrapper) ? new EntityWrapper<T>() : wrapper;
+	}
+
+	/**
+	 * <p>
+	 * 恢复 wrapper 原有的查询列
+	 * </p>
+	 */
+	private static void restoreSqlSelect(Wrapper<?> wrapper, String sqlSelect) {
+		wrapper.setSqlSelect(null == sqlSelect ? new String[0] : new String[] { sqlSelect });
+	}
+
+	@Override
+	public void selectForEach(Wrapper<T> wrapper, int fetchSize, final ResultHandler<T> handler) {
+		long start = System.nanoTime();
+		final int[] rows = new int[1];
+		try (StreamingSqlSession session = new StreamingSqlSession(readSqlSessionFactory())) {
+			SqlSession sqlSession = session.getSqlSession();
+			sqlSession.select(fetchStatement(sqlSession.getConfiguration(), fetchSize), wrapperParam(wrapper),
+					new ResultHandler<T>() {
+
+						@Override
+						public void handleResult(ResultContext<? extends T> resultContext) {
+							rows[0]++;
+							handler.handleResult(resultContext);
+						}
+					});
+		} catch (RuntimeException e) {
+			throw recordFailure("selectForEach", start, e, wrapper);
+		}
+		recordMetrics("selectForEach", start, rows[0], null, wrapper);
+	}
+
+	@Override
+	public Cursor<T> selectCursor(final Wrapper<T> wrapper, int fetchSize) {
+		final long start = System.nanoTime();
+		StreamingSqlSession session = new StreamingSqlSession(readSqlSessionFactory());
+		try {
+			SqlSession sqlSession = session.getSqlSession();
+			Cursor<T> cursor = sqlSession.selectCursor(fetchStatement(sqlSession.getConfiguration(), fetchSize),
+					wrapperParam(wrapper));
+			// 在游标关闭时记录读取的行数及打开到关闭的耗时
+			return new StreamingCursor<>(cursor, session, new StreamingCursor.CloseListener() {
+
+				@Override
+				public void closed(int rows) {
+					recordMetrics("selectCursor", start, rows, null, wrapper);
+				}
+			});
+		} catch (RuntimeException e) {
+			session.close();
+			throw recordFailure("selectCursor", start, e, wrapper);
+		}
+	}
+
+	/**
+	 * <p>
+	 * 流式查询语句，MySQL 驱动仅在 fetchSize 为 Integer.MIN_VALUE 时逐行读取
+	 * </p>
+	 */
+	private String fetchStatement(Configuration configuration, int fetchSize) {
+		if (DBType.MYSQL == GlobalConfigUtils.getDbType(configuration)) {
+			fetchSize = Integer.MIN_VALUE;
+		}
+		return SqlScriptHelper.fetchStatement(configuration, sqlStatement(SqlMethod.SELECT_LIST), fetchSize);
+	}
+
+	/**
+	 * <p>
+	 * 以 Mapper 方法相同的参数形式包装 Wrapper
+	 * </p>
+	 */
+	protected static MapperMethod.ParamMap<Object> wrapperParam(Wrapper<?> wrapper) {
+		MapperMethod.ParamMap<Object> param = new MapperMethod.ParamMap<>();
+		param.put("ew", wrapper);
+		param.put("param1", wrapper);
+		return param;
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Page<T> selectPage(Page<T> page) {
+		return selectPage(page, Condition.EMPTY);
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Page<T> selectPage(Page<T> page, Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			wrapper = (Wrapper<T>) SqlHelper.fillWrapper(page, wrapper);
+			if (deferredJoinPage) {
+				doSelectPageDeferred(page, wrapper);
+			} else {
+				doSelectPage(page, wrapper);
+			}
+			trackAll(page.getRecords());
+			return recordMetrics("selectPage", start, page.getRecords().size(), page, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("selectPage", start, e, wrapper);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	@Override
+	public Page<T> selectPageDeferred(Page<T> page, Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			wrapper = (Wrapper<T>) SqlHelper.fillWrapper(page, wrapper);
+			doSelectPageDeferred(page, wrapper);
+			trackAll(page.getRecords());
+			return recordMetrics("selectPageDeferred", start, page.getRecords().size(), page, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("selectPageDeferred", start, e, wrapper);
+		}
+	}
+
+	/**
+	 * <p>
+	 * 先按条件、排序及偏移量只查询主键，再按主键查询当页实体，深分页时数据库跳过的行不再读取整行
+	 * </p>
+	 */
+	private void doSelectPageDeferred(Page<T> page, Wrapper<T> wrapper) {
+		TableInfo tableInfo = SqlHelper.table(currentModelClass());
+		String keyColumn = tableInfo.getKeyColumn();
+		// 已指定查询列时按原方式分页
+		if (StringUtils.isEmpty(keyColumn) || null != wrapper.getSqlSelect()) {
+			doSelectPage(page, wrapper);
+			return;
+		}
+		wrapper.setSqlSelect(tableInfo.isKeyRelated() ? keyColumn + " AS " + tableInfo.getKeyProperty() : keyColumn);
+		try {
+			doSelectPage(page, wrapper);
+		} finally {
+			restoreSqlSelect(wrapper, null);
+		}
+		List<Serializable> ids = new ArrayList<>(page.getRecords().size());
+		for (T record : page.getRecords()) {
+			ids.add(entityId(record));
+		}
+		page.setRecords(ids.isEmpty() ? Collections.<T> emptyList() : doSelectBatchIds(ids));
+	}
+
+	private void doSelectPage(Page<T> page, Wrapper<T> wrapper) {
+		M mapper = readMapper();
+		if (!page.isSearchCount()) {
+			if (!pageCountProbe) {
+				page.setRecords(mapper.selectPage(page, wrapper));
+				return;
+			}
+			// 不查询总数时多取一行判断是否存在下一页，分页插件此时不会追加 page 的排序
+			if (page.isOpenSort()) {
+				wrapper.orderAsc(page.getAscs());
+				wrapper.orderDesc(page.getDescs());
+			}
+			List<T> records = mapper.selectPage(new RowBounds(page.getOffset(), page.getSize() + 1), wrapper);
+			page.setTotal(page.getOffset() + records.size());
+			// hasNext() 依赖 getPages() 计算的页数
+			page.getPages();
+			if (records.size() > page.getSize()) {
+				records = new ArrayList<>(records.subList(0, page.getSize()));
+			}
+			page.setRecords(records);
+			return;
+		}
+		PageCountCache countCache = pageCountCache;
+		boolean parallel = parallelPageCount && !TransactionSynchronizationManager.isActualTransactionActive();
+		if (null == countCache && !parallel) {
+			page.setRecords(mapper.selectPage(page, wrapper));
+			return;
+		}
+		final SqlSessionFactory sqlSessionFactory = readSqlSessionFactory();
+		final PageCountQuery countQuery = new PageCountQuery(sqlSessionFactory.getConfiguration(),
+				sqlStatement(SqlMethod.SELECT_PAGE), wrapperParam(wrapper), page);
+		Integer total = null == countCache ? null : countCache.get(countQuery.getKey());
+		if (null == total && !parallel) {
+			page.setRecords(mapper.selectPage(page, wrapper));
+			countCache.put(countQuery.getKey(), page.getTotal());
+			return;
+		}
+		Future<Integer> count = null;
+		if (null == total) {
+			count = parallelExecutor().submit(new Callable<Integer>() {
+
+				@Override
+				public Integer call() {
+					return countQuery.execute(sqlSessionFactory);
+				}
+			});
+		}
+		// fillWrapper 已追加 page 的排序，按 RowBounds 分页避免分页插件重复追加
+		List<T> records = mapper.selectPage(new RowBounds(page.getOffset(), page.getSize()), wrapper);
+		if (null != count) {
+			try {
+				total = count.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MybatisPlusException("Error: selectPage interrupted", e);
+			} catch (ExecutionException e) {
+				throw new MybatisPlusException("Error: Cannot execute selectPage Method. Cause", e.getCause());
+			}
+			if (null != countCache) {
+				countCache.put(countQuery.getKey(), total);
+			}
+		}
+		page.setTotal(total);
+		page.getPages();
+		page.setRecords(records);
+	}
+
+	@Override
+	public KeysetPage<T> selectKeysetPage(KeysetPage<T> page, Wrapper<T> wrapper) {
+		long start = System.nanoTime();
+		try {
+			KeysetPage<T> result = doSelectKeysetPage(page, wrapper);
+			trackAll(result.getRecords());
+			return recordMetrics("selectKeysetPage", start, result.getRecords().size(), result, wrapper);
+		} catch (RuntimeException e) {
+			throw recordFailure("selectKeysetPage", start, e, wrapper);
+		}
+	}
+
+	private KeysetPage<T> doSelectKeysetPage(KeysetPage<T> page, Wrapper<T> wrapper) {
+		TableInfo tableInfo = SqlHelper.table(currentModelClass());
+		String keyColumn = tableInfo.getKeyColumn();
+		if (StringUtils.isEmpty(keyColumn)) {
+			throw new MybatisPlusException("Error: selectKeysetPage requires a primary key on " + tableInfo.getTableName());
+		}
+		String sortColumn = page.getSortColumn();
+		String sortProperty = null == sortColumn ? null : sortProperty(tableInfo, sortColumn);
+		// 复制原条件，不修改调用方的 wrapper；原 wrapper 含 orderBy / last 时拒绝，避免破坏续页顺序
+		Wrapper<T> query = new WrapperCondition<>("selectKeysetPage", wrapper).newWrapper();
+		if (null != sortColumn) {
+			// 各数据库 NULL 的排序位置不同，续页条件无法可靠定位，排序字段为 NULL 的行不返回
+			and(query, sortColumn + " IS NOT NULL");
+		}
+		if (!page.isFirst()) {
+			String op = page.isAsc() ? " > " : " < ";
+			if (null == sortColumn) {
+				and(query, keyColumn + op + "{0}", page.getLastKey());
+			} else {
+				and(query, "(" + sortColumn + op + "{0} OR (" + sortColumn + " = {0} AND " + keyColumn + op + "{1}))",
+						page.getLastSortValue(), page.getLastKey());
+			}
+		}
+		if (null != sortColumn) {
+			query.orderBy(sortColumn, page.isAsc());
+		}
+		query.orderBy(keyColumn, page.isAsc());
+		// 多取一行判断是否存在下一页
+		List<T> records = readMapper().selectPage(new RowBounds(0, page.getSize() + 1), query);
+		boolean hasNext = records.size() > page.getSize();
+		if (hasNext) {
+			records = new ArrayList<>(records.subList(0, page.getSize()));
+		}
+		page.setRecords(records).setHasNext(hasNext);
+		if (!records.isEmpty()) {
+			MetaObject last = SystemMetaObject.forObject(records.get(records.size() - 1));
+			page.setLastKey(last.getValue(tableInfo.getKeyProperty()));
+			if (null != sortProperty) {
+				page.setLastSortValue(last.getValue(sortProperty));
+			}
+		}
 		return page;
 	}
 
+	/**
+	 * <p>
+	 * 追加 AND 条件，原条件已由 {@link WrapperCondition} 整体加括号
+	 * </p>
+	 */
+	private static void and(Wrapper<?> wrapper, String sqlWhere, Object... params) {
+		if (wrapper.isEmptyOfWhere()) {
+			wrapper.where(sqlWhere, params);
+		} else {
+			wrapper.and(sqlWhere, params);
+		}
+	}
+
+	/**
+	 * <p>
+	 * 排序列对应的实体属性
+	 * </p>
+	 */
+	private static String sortProperty(TableInfo tableInfo, String sortColumn) {
+		for (TableFieldInfo fieldInfo : tableInfo.getFieldList()) {
+			if (sortColumn.equalsIgnoreCase(fieldInfo.getColumn())) {
+				return fieldInfo.getProperty();
+			}
+		}
+		throw new IllegalArgumentException("Error: unknown sort column " + sortColumn);
+	}
+
+	/**
+	 * wrapper 的条件部分，复制条件语句及参数，用于生成追加主键条件、分组等的新 wrapper，不修改原 wrapper
+	 */
+	private static final class WrapperCondition<T> {
+
+		private static final Pattern UNSUPPORTED = Pattern.compile("(?i)\\b(ORDER|GROUP)\\s+BY\\b|\\bHAVING\\b|\\bLIMIT\\b");
+
+		private static final Pattern LEADING = Pattern.compile("(?i)^\\s*(WHERE|AND|OR)\\s+");
+
+		private static final String PARAM_PREFIX = "MPCOND_";
+
+		private final T entity;
+
+		private final String sqlWhere;
+
+		private final Map<String, Object> params = new HashMap<>();
+
+		private WrapperCondition(String operation, Wrapper<T> wrapper) {
+			this.entity = null == wrapper ? null : wrapper.getEntity();
+			String segment = null == wrapper ? null : wrapper.getSqlSegment();
+			if (StringUtils.isEmpty(segment)) {
+				this.sqlWhere = null;
+				return;
+			}
+			if (UNSUPPORTED.matcher(segment).find()) {
+				throw new IllegalArgumentException("Error: " + operation + " does not support orderBy, groupBy, having or last");
+			}
+			// 参数引用改为新 wrapper 的别名，并加前缀避免与新追加条件的参数名冲突
+			String from = "#{" + wrapper.getParamAlias() + ".paramNameValuePairs.";
+			String to = "#{" + new EntityWrapper<T>().getParamAlias() + ".paramNameValuePairs." + PARAM_PREFIX;
+			this.sqlWhere = LEADING.matcher(segment).replaceFirst("").replace(from, to);
+			for (Map.Entry<String, Object> entry : wrapper.getParamNameValuePairs().entrySet()) {
+				params.put(PARAM_PREFIX + entry.getKey(), entry.getValue());
+			}
+		}
+
+		private Wrapper<T> newWrapper() {
+			EntityWrapper<T> wrapper = new EntityWrapper<>(entity);
+			if (null != sqlWhere) {
+				// 原条件中可能含 OR，整体加括号
+				wrapper.where("(" + sqlWhere + ")");
+				wrapper.getParamNameValuePairs().putAll(params);
+			}
+			return wrapper;
+		}
+	}
+
+	/**
+	 * 分组聚合查询的结果行，按列别名 groupKey、aggValue 自动映射
+	 */
+	static final class AggregateRow {
+
+		private Object groupKey;
+
+		private Object aggValue;
+
+		public void setGroupKey(Object groupKey) {
+			this.groupKey = groupKey;
+		}
+
+		public void setAggValue(Object aggValue) {
+			this.aggValue = aggValue;
+		}
+	}
+
+	/**
+	 * selectPage 总数缓存，按语句及参数值记录总数
+	 */
+	private static final class PageCountCache {
+
+		private static final int MAX_ENTRIES = 1024;
+
+		private final long ttlNanos;
+
+		private final ConcurrentMap<List<Object>, long[]> counts = new ConcurrentHashMap<>();
+
+		private PageCountCache(long ttlNanos) {
+			this.ttlNanos = ttlNanos;
+		}
+
+		private Integer get(List<Object> key) {
+			long[] entry = counts.get(key);
+			if (null == entry) {
+				return null;
+			}
+			if (System.nanoTime() - entry[1] >= ttlNanos) {
+				counts.remove(key, entry);
+				return null;
+			}
+			return (int) entry[0];
+		}
+
+		private void put(List<Object> key, int total) {
+			if (counts.size() >= MAX_ENTRIES) {
+				long now = System.nanoTime();
+				for (Iterator<long[]> it = counts.values().iterator(); it.hasNext();) {
+					if (now - it.next()[1] >= ttlNanos) {
+						it.remove();
+					}
+				}
+				if (counts.size() >= MAX_ENTRIES) {
+					counts.clear();
+				}
+			}
+			counts.put(key, new long[] { total, System.nanoTime() });
+		}
+
+		private void clear() {
+			counts.clear();
+		}
+	}
+
+	/**
+	 * 只读副本的 SqlSessionFactory 及对应的 SqlSession、Mapper
+	 */
+	private static final class Replica<M> {
+
+		private final SqlSessionFactory sqlSessionFactory;
+
+		private final SqlSession sqlSession;
+
+		private final M mapper;
+
+		private Replica(SqlSessionFactory sqlSessionFactory, SqlSession sqlSession, M mapper) {
+			this.sqlSessionFactory = sqlSessionFactory;
+			this.sqlSession = sqlSession;
+			this.mapper = mapper;
+		}
+	}
+
 }
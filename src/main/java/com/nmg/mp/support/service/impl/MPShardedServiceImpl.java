@@ -0,0 +1,479 @@
+package com.nmg.mp.support.service.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.mapper.BaseMapper;
+import com.baomidou.mybatisplus.mapper.SqlHelper;
+import com.baomidou.mybatisplus.mapper.Wrapper;
+import com.baomidou.mybatisplus.toolkit.CollectionUtils;
+import com.nmg.mp.support.service.IMPService;
+import com.nmg.mp.support.service.IMPShardedService;
+import com.nmg.mp.support.service.ShardStrategy;
+import com.nmg.mp.support.toolkit.ExecutorUtils;
+import com.nmg.mp.support.toolkit.IdHelper;
+
+/**
+ * 类MPShardedServiceImpl.java的实现描述：分库的 mp service 实现，委托给各分片的 service 执行
+ * <p>
+ * 涉及多个分片的操作在线程池中并行执行，只涉及一个分片时在调用线程执行；
+ * 并行执行的分片操作不参与调用方的事务
+ * </p>
+ * <p>
+ * 线程池拒绝分片任务时操作失败，不在调用线程执行，避免分片操作继承调用方的事务及线程变量
+ * </p>
+ */
+public class MPShardedServiceImpl<T> implements IMPShardedService<T> {
+
+	private final Class<T> entityClass;
+
+	private final List<IMPService<T>> shards;
+
+	private final ShardStrategy<T> shardStrategy;
+
+	private final ExecutorService executor;
+
+	/**
+	 * 每个分片一个线程的有界线程池，队列满时拒绝任务
+	 */
+	public MPShardedServiceImpl(Class<T> entityClass, List<? extends IMPService<T>> shards,
+			ShardStrategy<T> shardStrategy) {
+		this(entityClass, shards, shardStrategy, ExecutorUtils.newBoundedExecutor(
+				entityClass.getSimpleName() + "-shard", Math.max(1, shards.size()), 1024,
+				new ThreadPoolExecutor.AbortPolicy()));
+	}
+
+	/**
+	 * @param entityClass
+	 *            实体类
+	 * @param shards
+	 *            各分片的 service，下标即分片下标
+	 * @param shardStrategy
+	 *            分片路由策略
+	 * @param executor
+	 *            并行执行分片操作的线程池，拒绝策略不应在调用线程执行任务
+	 */
+	public MPShardedServiceImpl(Class<T> entityClass, List<? extends IMPService<T>> shards,
+			ShardStrategy<T> shardStrategy, ExecutorService executor) {
+		if (CollectionUtils.isEmpty(shards)) {
+			throw new IllegalArgumentException("Error: shards must not be empty");
+		}
+		this.entityClass = entityClass;
+		this.shards = Collections.unmodifiableList(new ArrayList<IMPService<T>>(shards));
+		this.shardStrategy = shardStrategy;
+		this.executor = executor;
+	}
+
+	/**
+	 * <p>
+	 * 按分片的 SqlSessionFactory 创建各分片的 service，各 SqlSessionFactory 需注册 mapperClass
+	 * </p>
+	 * <p>
+	 * 创建的 service 不是 Spring 代理，@Transactional 不生效，批量操作依赖连接的自动提交
+	 * </p>
+	 */
+	public static <M extends BaseMapper<T>, T> MPShardedServiceImpl<T> fromSqlSessionFactories(Class<M> mapperClass,
+			Class<T> entityClass, List<SqlSessionFactory> sqlSessionFactories, ShardStrategy<T> shardStrategy) {
+		List<IMPService<T>> shards = new ArrayList<>(sqlSessionFactories.size());
+		for (SqlSessionFactory sqlSessionFactory : sqlSessionFactories) {
+			shards.add(new ShardMPServiceImpl<>(mapperClass, entityClass, sqlSessionFactory));
+		}
+		return new MPShardedServiceImpl<>(entityClass, shards, shardStrategy);
+	}
+
+	public ShardStrategy<T> getShardStrategy() {
+		return shardStrategy;
+	}
+
+	public ExecutorService getExecutor() {
+		return executor;
+	}
+
+	@Override
+	public int getShardCount() {
+		return shards.size();
+	}
+
+	@Override
+	public IMPService<T> getShard(int index) {
+		return shards.get(index);
+	}
+
+	@Override
+	public boolean insert(T entity) {
+		assignId(entity);
+		return shards.get(shardOf(entity)).insert(entity);
+	}
+
+	@Override
+	public boolean insertBatch(List<T> entityList) {
+		return allTrue(scatter("insertBatch", groupForInsert(entityList), new ShardFunction<List<T>, Boolean>() {
+
+			@Override
+			public Boolean apply(IMPService<T> shard, List<T> group) {
+				return shard.insertBatch(group);
+			}
+		}));
+	}
+
+	@Override
+	public boolean insertBatch(List<T> entityList, final int batchSize) {
+		return allTrue(scatter("insertBatch", groupForInsert(entityList), new ShardFunction<List<T>, Boolean>() {
+
+			@Override
+			public Boolean apply(IMPService<T> shard, List<T> group) {
+				return shard.insertBatch(group, batchSize);
+			}
+		}));
+	}
+
+	@Override
+	public boolean upsertBatch(List<T> entityList) {
+		return allTrue(scatter("upsertBatch", groupForInsert(entityList), new ShardFunction<List<T>, Boolean>() {
+
+			@Override
+			public Boolean apply(IMPService<T> shard, List<T> group) {
+				return shard.upsertBatch(group);
+			}
+		}));
+	}
+
+	@Override
+	public boolean deleteById(final Serializable id) {
+		int index = shardStrategy.shardOfId(id, shards.size());
+		if (index >= 0) {
+			return shards.get(checkIndex(index)).deleteById(id);
+		}
+		return anyTrue(scatter("deleteById", allShards(id), new ShardFunction<Serializable, Boolean>() {
+
+			@Override
+			public Boolean apply(IMPService<T> shard, Serializable arg) {
+				return shard.deleteById(arg);
+			}
+		}));
+	}
+
+	@Override
+	public boolean deleteBatchIds(Collection<? extends Serializable> idList) {
+		if (CollectionUtils.isEmpty(idList)) {
+			throw new IllegalArgumentException("Error: idList must not be empty");
+		}
+		return anyTrue(scatter("deleteBatchIds", groupIds(idList), new ShardFunction<List<Serializable>, Boolean>() {
+
+			@Override
+			public Boolean apply(IMPService<T> shard, List<Serializable> group) {
+				return shard.deleteBatchIds(group);
+			}
+		}));
+	}
+
+	@Override
+	public boolean delete(Wrapper<T> wrapper) {
+		return anyTrue(scatter("delete", allShards(wrapper), new ShardFunction<Wrapper<T>, Boolean>() {
+
+			@Override
+			public Boolean apply(IMPService<T> shard, Wrapper<T> arg) {
+				return shard.delete(arg);
+			}
+		}));
+	}
+
+	@Override
+	public boolean updateById(T entity) {
+		return shards.get(shardOfUpdate(entity)).updateById(entity);
+	}
+
+	@Override
+	public int updateBatchById(List<T> entityList) {
+		if (CollectionUtils.isEmpty(entityList)) {
+			throw new IllegalArgumentException("Error: entityList must not be empty");
+		}
+		Map<Integer, List<T>> groups = new TreeMap<>();
+		for (T entity : entityList) {
+			add(groups, shardOfUpdate(entity), entity);
+		}
+		int rows = 0;
+		for (Integer shardRows : scatter("updateBatchById", groups, new ShardFunction<List<T>, Integer>() {
+
+			@Override
+			public Integer apply(IMPService<T> shard, List<T> group) {
+				return shard.updateBatchById(group);
+			}
+		})) {
+			rows += shardRows;
+		}
+		return rows;
+	}
+
+	@Override
+	public boolean updateByWrapper(final T entity, Wrapper<T> wrapper) {
+		return anyTrue(scatter("updateByWrapper", allShards(wrapper), new ShardFunction<Wrapper<T>, Boolean>() {
+
+			@Override
+			public Boolean apply(IMPService<T> shard, Wrapper<T> arg) {
+				return shard.updateByWrapper(entity, arg);
+			}
+		}));
+	}
+
+	@Override
+	public T selectById(Serializable id) {
+		int index = shardStrategy.shardOfId(id, shards.size());
+		if (index >= 0) {
+			return shards.get(checkIndex(index)).selectById(id);
+		}
+		for (T entity : scatter("selectById", allShards(id), new ShardFunction<Serializable, T>() {
+
+			@Override
+			public T apply(IMPService<T> shard, Serializable arg) {
+				return shard.selectById(arg);
+			}
+		})) {
+			if (null != entity) {
+				return entity;
+			}
+		}
+		return null;
+	}
+
+	@Override
+	public List<T> selectBatchIds(Collection<? extends Serializable> idList) {
+		if (CollectionUtils.isEmpty(idList)) {
+			return Collections.emptyList();
+		}
+		List<List<T>> results = scatter("selectBatchIds", groupIds(idList),
+				new ShardFunction<List<Serializable>, List<T>>() {
+
+					@Override
+					public List<T> apply(IMPService<T> shard, List<Serializable> group) {
+						return shard.selectBatchIds(group);
+					}
+				});
+		String keyProperty = SqlHelper.table(entityClass).getKeyProperty();
+		Map<String, T> entityMap = new HashMap<>(idList.size() * 4 / 3 + 1);
+		for (List<T> list : results) {
+			for (T entity : list) {
+				entityMap.put(String.valueOf(SystemMetaObject.forObject(entity).getValue(keyProperty)), entity);
+			}
+		}
+		// 按调用方的主键顺序返回
+		List<T> entityList = new ArrayList<>(entityMap.size());
+		for (Serializable id : idList) {
+			T entity = entityMap.remove(String.valueOf(id));
+			if (null != entity) {
+				entityList.add(entity);
+			}
+		}
+		return entityList;
+	}
+
+	@Override
+	public int selectCount(Wrapper<T> wrapper) {
+		int count = 0;
+		for (Integer shardCount : scatter("selectCount", allShards(wrapper), new ShardFunction<Wrapper<T>, Integer>() {
+
+			@Override
+			public Integer apply(IMPService<T> shard, Wrapper<T> arg) {
+				return shard.selectCount(arg);
+			}
+		})) {
+			count += shardCount;
+		}
+		return count;
+	}
+
+	@Override
+	public List<T> selectList(Wrapper<T> wrapper) {
+		List<T> entityList = new ArrayList<>();
+		for (List<T> list : scatter("selectList", allShards(wrapper), new ShardFunction<Wrapper<T>, List<T>>() {
+
+			@Override
+			public List<T> apply(IMPService<T> shard, Wrapper<T> arg) {
+				return shard.selectList(arg);
+			}
+		})) {
+			entityList.addAll(list);
+		}
+		return entityList;
+	}
+
+	/**
+	 * <p>
+	 * 分片上执行的操作
+	 * </p>
+	 */
+	private abstract class ShardFunction<A, R> {
+
+		abstract R apply(IMPService<T> shard, A arg);
+	}
+
+	/**
+	 * <p>
+	 * 在各分片上执行操作，按分片下标顺序返回结果；只涉及一个分片时在调用线程执行
+	 * </p>
+	 * <p>
+	 * 线程池拒绝任务时取消尚未执行的分片任务并抛出异常
+	 * </p>
+	 *
+	 * @param operation
+	 *            操作名称
+	 * @param args
+	 *            分片下标及对应的参数
+	 * @param function
+	 *            分片上执行的操作
+	 * @return List<R>
+	 */
+	private <A, R> List<R> scatter(String operation, Map<Integer, A> args, final ShardFunction<A, R> function) {
+		if (args.size() == 1) {
+			Map.Entry<Integer, A> entry = args.entrySet().iterator().next();
+			return Collections.singletonList(function.apply(shards.get(entry.getKey()), entry.getValue()));
+		}
+		List<Future<R>> futures = new ArrayList<>(args.size());
+		for (Map.Entry<Integer, A> entry : args.entrySet()) {
+			final IMPService<T> shard = shards.get(entry.getKey());
+			final A arg = entry.getValue();
+			try {
+				futures.add(executor.submit(new Callable<R>() {
+
+					@Override
+					public R call() {
+						return function.apply(shard, arg);
+					}
+				}));
+			} catch (RejectedExecutionException e) {
+				for (Future<R> future : futures) {
+					future.cancel(false);
+				}
+				throw new MybatisPlusException("Error: Cannot execute " + operation + " Method. Cause", e);
+			}
+		}
+		List<R> results = new ArrayList<>(futures.size());
+		for (Future<R> future : futures) {
+			try {
+				results.add(future.get());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MybatisPlusException("Error: " + operation + " interrupted", e);
+			} catch (ExecutionException e) {
+				throw new MybatisPlusException("Error: Cannot execute " + operation + " Method. Cause", e.getCause());
+			}
+		}
+		return results;
+	}
+
+	private <A> Map<Integer, A> allShards(A arg) {
+		Map<Integer, A> args = new TreeMap<>();
+		for (int i = 0; i < shards.size(); i++) {
+			args.put(i, arg);
+		}
+		return args;
+	}
+
+	private Map<Integer, List<T>> groupForInsert(List<T> entityList) {
+		if (CollectionUtils.isEmpty(entityList)) {
+			throw new IllegalArgumentException("Error: entityList must not be empty");
+		}
+		Map<Integer, List<T>> groups = new TreeMap<>();
+		for (T entity : entityList) {
+			assignId(entity);
+			add(groups, shardOf(entity), entity);
+		}
+		return groups;
+	}
+
+	/**
+	 * <p>
+	 * 按分片拆分主键，无法由主键确定分片时加入全部分片
+	 * </p>
+	 */
+	private Map<Integer, List<Serializable>> groupIds(Collection<? extends Serializable> idList) {
+		Map<Integer, List<Serializable>> groups = new TreeMap<>();
+		for (Serializable id : idList) {
+			int index = shardStrategy.shardOfId(id, shards.size());
+			if (index >= 0) {
+				add(groups, checkIndex(index), id);
+			} else {
+				for (int i = 0; i < shards.size(); i++) {
+					add(groups, i, id);
+				}
+			}
+		}
+		return groups;
+	}
+
+	private static <E> void add(Map<Integer, List<E>> groups, int index, E element) {
+		List<E> group = groups.get(index);
+		if (null == group) {
+			group = new ArrayList<>();
+			groups.put(index, group);
+		}
+		group.add(element);
+	}
+
+	private int shardOf(T entity) {
+		return checkIndex(shardStrategy.shardOf(entity, shards.size()));
+	}
+
+	/**
+	 * <p>
+	 * 修改时优先按主键路由，实体中可不包含分片键
+	 * </p>
+	 */
+	private int shardOfUpdate(T entity) {
+		String keyProperty = SqlHelper.table(entityClass).getKeyProperty();
+		Serializable id = (Serializable) SystemMetaObject.forObject(entity).getValue(keyProperty);
+		int index = shardStrategy.shardOfId(id, shards.size());
+		return index >= 0 ? checkIndex(index) : shardOf(entity);
+	}
+
+	private int checkIndex(int index) {
+		if (index < 0 || index >= shards.size()) {
+			throw new MybatisPlusException("Error: shard index " + index + " out of range [0, " + shards.size() + ")");
+		}
+		return index;
+	}
+
+	/**
+	 * <p>
+	 * 主键为 ID_WORKER / UUID 且为空时预先生成，保证按主键路由的插入与后续查询落在同一分片
+	 * </p>
+	 */
+	private void assignId(T entity) {
+		IdHelper.assignId(SqlHelper.table(entityClass), SystemMetaObject.forObject(entity));
+	}
+
+	private static boolean allTrue(List<Boolean> results) {
+		for (Boolean result : results) {
+			if (!result) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean anyTrue(List<Boolean> results) {
+		for (Boolean result : results) {
+			if (result) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+}
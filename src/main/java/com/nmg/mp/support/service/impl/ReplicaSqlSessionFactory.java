@@ -0,0 +1,95 @@
+package com.nmg.mp.support.service.impl;
+
+import java.sql.Connection;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.apache.ibatis.session.TransactionIsolationLevel;
+import org.apache.ibatis.session.defaults.DefaultSqlSession;
+import org.apache.ibatis.transaction.Transaction;
+
+/**
+ * 类ReplicaSqlSessionFactory.java的实现描述：使用主库 Configuration（已注册的 Mapper 及语句）、在副本数据源上打开连接的
+ * SqlSessionFactory
+ * <p>
+ * 副本无需注册 Mapper，因此不会改变 mybatis-plus 中实体 TableInfo 绑定的 SqlSessionFactory，批量写入等仍访问主库
+ * </p>
+ */
+class ReplicaSqlSessionFactory implements SqlSessionFactory {
+
+	private final Configuration configuration;
+
+	private final Environment environment;
+
+	/**
+	 * @param configuration
+	 *            主库 Configuration
+	 * @param environment
+	 *            副本的数据源及事务工厂
+	 */
+	ReplicaSqlSessionFactory(Configuration configuration, Environment environment) {
+		this.configuration = configuration;
+		this.environment = environment;
+	}
+
+	@Override
+	public SqlSession openSession() {
+		return openSession(configuration.getDefaultExecutorType(), null, false);
+	}
+
+	@Override
+	public SqlSession openSession(boolean autoCommit) {
+		return openSession(configuration.getDefaultExecutorType(), null, autoCommit);
+	}
+
+	@Override
+	public SqlSession openSession(Connection connection) {
+		return openSession(configuration.getDefaultExecutorType(), connection);
+	}
+
+	@Override
+	public SqlSession openSession(TransactionIsolationLevel level) {
+		return openSession(configuration.getDefaultExecutorType(), level, false);
+	}
+
+	@Override
+	public SqlSession openSession(ExecutorType execType) {
+		return openSession(execType, null, false);
+	}
+
+	@Override
+	public SqlSession openSession(ExecutorType execType, boolean autoCommit) {
+		return openSession(execType, null, autoCommit);
+	}
+
+	@Override
+	public SqlSession openSession(ExecutorType execType, TransactionIsolationLevel level) {
+		return openSession(execType, level, false);
+	}
+
+	@Override
+	public SqlSession openSession(ExecutorType execType, Connection connection) {
+		return newSqlSession(environment.getTransactionFactory().newTransaction(connection), execType, false);
+	}
+
+	@Override
+	public Configuration getConfiguration() {
+		return configuration;
+	}
+
+	private SqlSession openSession(ExecutorType execType, TransactionIsolationLevel level, boolean autoCommit) {
+		Transaction transaction = environment.getTransactionFactory().newTransaction(environment.getDataSource(), level,
+				autoCommit);
+		return newSqlSession(transaction, execType, autoCommit);
+	}
+
+	private SqlSession newSqlSession(Transaction transaction, ExecutorType execType, boolean autoCommit) {
+		Executor executor = configuration.newExecutor(transaction, execType);
+		return new DefaultSqlSession(configuration, executor, autoCommit);
+	}
+
+}
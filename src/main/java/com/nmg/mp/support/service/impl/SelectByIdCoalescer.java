@@ -0,0 +1,136 @@
+package com.nmg.mp.support.service.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.beans.BeanUtils;
+
+import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
+
+/**
+ * 类SelectByIdCoalescer.java的实现描述：合并并发的 selectById 请求
+ * <p>
+ * 时间窗口内第一个请求的线程作为 leader，等待窗口结束或批次已满后以一次 selectBatchIds 查询全部主键，
+ * 其余线程等待 leader 返回结果；相同主键的请求只查询一次
+ * </p>
+ * <p>
+ * 等待超过 maxWait（如 leader 的连接挂起）的线程不再等待，直接查询自己的主键
+ * </p>
+ */
+class SelectByIdCoalescer<T> {
+
+	private final MPServiceImpl<?, T> service;
+
+	private final long windowNanos;
+
+	private final int maxBatchSize;
+
+	private final long maxWaitNanos;
+
+	private final Object lock = new Object();
+
+	private Batch<T> current;
+
+	SelectByIdCoalescer(MPServiceImpl<?, T> service, long window, TimeUnit unit, int maxBatchSize, long maxWait,
+			TimeUnit maxWaitUnit) {
+		if (window <= 0 || maxBatchSize < 1 || maxWait <= 0) {
+			throw new IllegalArgumentException("Error: window, maxBatchSize and maxWait must be positive");
+		}
+		this.service = service;
+		this.windowNanos = unit.toNanos(window);
+		this.maxBatchSize = maxBatchSize;
+		this.maxWaitNanos = maxWaitUnit.toNanos(maxWait);
+	}
+
+	T selectById(Serializable id) {
+		String key = String.valueOf(id);
+		Batch<T> batch;
+		boolean leader = false;
+		synchronized (lock) {
+			batch = current;
+			if (null == batch || (batch.ids.size() >= maxBatchSize && !batch.ids.containsKey(key))) {
+				batch = current = new Batch<>();
+				leader = true;
+			}
+			batch.ids.put(key, id);
+			if (batch.ids.size() >= maxBatchSize) {
+				lock.notifyAll();
+			}
+		}
+		if (leader) {
+			load(batch);
+		} else {
+			try {
+				if (!batch.done.await(maxWaitNanos, TimeUnit.NANOSECONDS)) {
+					List<T> entities = service.loadBatchIds(Collections.singletonList(id));
+					return entities.isEmpty() ? null : entities.get(0);
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new MybatisPlusException("Error: selectById interrupted", e);
+			}
+		}
+		if (null != batch.error) {
+			throw new MybatisPlusException("Error: Cannot execute selectById Method. Cause", batch.error);
+		}
+		T entity = batch.results.get(key);
+		// 相同主键的请求共享查询结果，非 leader 返回拷贝，避免多线程修改同一对象
+		return leader || null == entity ? entity : copy(entity);
+	}
+
+	@SuppressWarnings("unchecked")
+	private static <T> T copy(T entity) {
+		T copy = (T) BeanUtils.instantiateClass(entity.getClass());
+		BeanUtils.copyProperties(entity, copy);
+		return copy;
+	}
+
+	private void load(Batch<T> batch) {
+		List<Serializable> ids;
+		synchronized (lock) {
+			long deadline = System.nanoTime() + windowNanos;
+			long remaining = windowNanos;
+			while (batch.ids.size() < maxBatchSize && remaining > 0) {
+				try {
+					TimeUnit.NANOSECONDS.timedWait(lock, remaining);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					break;
+				}
+				remaining = deadline - System.nanoTime();
+			}
+			if (current == batch) {
+				current = null;
+			}
+			ids = new ArrayList<>(batch.ids.values());
+		}
+		try {
+			for (T entity : service.loadBatchIds(ids)) {
+				batch.results.put(String.valueOf(service.entityId(entity)), entity);
+			}
+		} catch (Throwable e) {
+			batch.error = e;
+		} finally {
+			batch.done.countDown();
+		}
+	}
+
+	private static class Batch<T> {
+
+		private final Map<String, Serializable> ids = new LinkedHashMap<>();
+
+		private final Map<String, T> results = new HashMap<>();
+
+		private final CountDownLatch done = new CountDownLatch(1);
+
+		private volatile Throwable error;
+	}
+
+}
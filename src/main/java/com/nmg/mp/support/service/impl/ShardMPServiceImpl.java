@@ -0,0 +1,52 @@
+package com.nmg.mp.support.service.impl;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+import com.baomidou.mybatisplus.MybatisSqlSessionTemplate;
+import com.baomidou.mybatisplus.mapper.BaseMapper;
+
+/**
+ * 类ShardMPServiceImpl.java的实现描述：绑定到单个分片 SqlSessionFactory 的 mp service
+ * <p>
+ * mybatis-plus 按实体类只记录一个 SqlSessionFactory，分片场景下由本类指定批量操作等使用的 SqlSessionFactory
+ * </p>
+ */
+class ShardMPServiceImpl<M extends BaseMapper<T>, T> extends MPServiceImpl<M, T> {
+
+	private final Class<T> entityClass;
+
+	private final SqlSessionFactory sqlSessionFactory;
+
+	private final SqlSession sqlSession;
+
+	ShardMPServiceImpl(Class<M> mapperClass, Class<T> entityClass, SqlSessionFactory sqlSessionFactory) {
+		MybatisSqlSessionTemplate sqlSessionTemplate = new MybatisSqlSessionTemplate(sqlSessionFactory);
+		this.entityClass = entityClass;
+		this.sqlSessionFactory = sqlSessionFactory;
+		this.sqlSession = sqlSessionTemplate;
+		this.baseMapper = sqlSessionTemplate.getMapper(mapperClass);
+	}
+
+	@Override
+	protected Class<T> currentModelClass() {
+		return entityClass;
+	}
+
+	@Override
+	protected SqlSession sqlSessionBatch() {
+		return sqlSessionFactory.openSession(ExecutorType.BATCH);
+	}
+
+	@Override
+	protected SqlSession sqlSession() {
+		return sqlSession;
+	}
+
+	@Override
+	protected SqlSessionFactory sqlSessionFactory() {
+		return sqlSessionFactory;
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.nmg.mp.support.service.impl;
+
+import java.io.IOException;
+import java.util.Iterator;
+
+import org.apache.ibatis.cursor.Cursor;
+
+/**
+ * 类StreamingCursor.java的实现描述：持有独立 SqlSession 的游标，关闭游标时同时关闭 SqlSession，并通知已读取的行数
+ */
+class StreamingCursor<T> implements Cursor<T> {
+
+	private final Cursor<T> cursor;
+
+	private final StreamingSqlSession session;
+
+	private final CloseListener listener;
+
+	private boolean closed;
+
+	StreamingCursor(Cursor<T> cursor, StreamingSqlSession session, CloseListener listener) {
+		this.cursor = cursor;
+		this.session = session;
+		this.listener = listener;
+	}
+
+	@Override
+	public boolean isOpen() {
+		return cursor.isOpen();
+	}
+
+	@Override
+	public boolean isConsumed() {
+		return cursor.isConsumed();
+	}
+
+	@Override
+	public int getCurrentIndex() {
+		return cursor.getCurrentIndex();
+	}
+
+	@Override
+	public Iterator<T> iterator() {
+		return cursor.iterator();
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (closed) {
+			return;
+		}
+		closed = true;
+		int rows = cursor.getCurrentIndex() + 1;
+		try {
+			cursor.close();
+		} finally {
+			session.close();
+			listener.closed(rows);
+		}
+	}
+
+	/**
+	 * 游标首次关闭时回调
+	 */
+	interface CloseListener {
+
+		/**
+		 * @param rows
+		 *            已读取的行数
+		 */
+		void closed(int rows);
+
+	}
+
+}
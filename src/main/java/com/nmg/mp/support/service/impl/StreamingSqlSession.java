@@ -0,0 +1,64 @@
+package com.nmg.mp.support.service.impl;
+
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
+
+/**
+ * 类StreamingSqlSession.java的实现描述：流式查询使用的 SqlSession
+ * <p>
+ * 不在 Spring 事务中时临时关闭连接的自动提交（PostgreSQL 等驱动仅在非自动提交下使用服务端游标），关闭时恢复；
+ * 处于事务中时直接使用事务连接
+ * </p>
+ */
+class StreamingSqlSession implements Closeable {
+
+	private final SqlSession sqlSession;
+
+	private Connection connection;
+
+	private boolean restoreAutoCommit;
+
+	StreamingSqlSession(SqlSessionFactory sqlSessionFactory) {
+		this.sqlSession = sqlSessionFactory.openSession();
+		if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+			try {
+				connection = sqlSession.getConnection();
+				if (connection.getAutoCommit()) {
+					connection.setAutoCommit(false);
+					restoreAutoCommit = true;
+				}
+			} catch (SQLException e) {
+				sqlSession.close();
+				throw new MybatisPlusException("Error: Cannot open streaming SqlSession. Cause", e);
+			}
+		}
+	}
+
+	SqlSession getSqlSession() {
+		return sqlSession;
+	}
+
+	@Override
+	public void close() {
+		try {
+			if (restoreAutoCommit) {
+				// 只读查询，结束本地事务后恢复自动提交
+				connection.commit();
+				connection.setAutoCommit(true);
+			}
+		} catch (SQLException e) {
+			throw new MybatisPlusException("Error: Cannot close streaming SqlSession. Cause", e);
+		} finally {
+			restoreAutoCommit = false;
+			sqlSession.close();
+		}
+	}
+
+}
@@ -0,0 +1,136 @@
+package com.nmg.mp.support.toolkit;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 类AdaptiveBatchSizer.java的实现描述：自适应的批量写入大小，根据每次 flushStatements 的耗时及数据量调整下一批的条数
+ * <p>
+ * 每批耗时低于目标时增大、高于目标时减小，单次调整幅度不超过一倍；同时按单批最大数据量限制，避免大字段行一次提交过多。
+ * 调整结果按实体类记录，后续调用直接从上次的批量大小开始；可在多个 service 间共享
+ * </p>
+ */
+public class AdaptiveBatchSizer {
+
+	private final long targetNanos;
+
+	private final int minBatchSize;
+
+	private final int maxBatchSize;
+
+	private int initialBatchSize = 30;
+
+	private long maxPayloadBytes = 4L * 1024 * 1024;
+
+	private final ConcurrentMap<Class<?>, Integer> batchSizes = new ConcurrentHashMap<>();
+
+	/**
+	 * @param targetLatency
+	 *            单批 flushStatements 的目标耗时
+	 * @param unit
+	 *            时间单位
+	 * @param minBatchSize
+	 *            最小批量大小
+	 * @param maxBatchSize
+	 *            最大批量大小
+	 */
+	public AdaptiveBatchSizer(long targetLatency, TimeUnit unit, int minBatchSize, int maxBatchSize) {
+		if (targetLatency <= 0) {
+			throw new IllegalArgumentException("Error: targetLatency must be positive");
+		}
+		if (minBatchSize < 1 || maxBatchSize < minBatchSize) {
+			throw new IllegalArgumentException("Error: batch size range is invalid");
+		}
+		this.targetNanos = unit.toNanos(targetLatency);
+		this.minBatchSize = minBatchSize;
+		this.maxBatchSize = maxBatchSize;
+	}
+
+	/**
+	 * <p>
+	 * 未记录过的实体类使用的初始批量大小，默认 30
+	 * </p>
+	 */
+	public void setInitialBatchSize(int initialBatchSize) {
+		this.initialBatchSize = initialBatchSize;
+	}
+
+	/**
+	 * <p>
+	 * 单批最大数据量（字节），默认 4M；小于等于 0 表示不限制
+	 * </p>
+	 */
+	public void setMaxPayloadBytes(long maxPayloadBytes) {
+		this.maxPayloadBytes = maxPayloadBytes;
+	}
+
+	/**
+	 * <p>
+	 * 实体类当前的批量大小
+	 * </p>
+	 */
+	public int batchSize(Class<?> entityClass) {
+		Integer batchSize = batchSizes.get(entityClass);
+		return null == batchSize ? clamp(initialBatchSize) : batchSize;
+	}
+
+	/**
+	 * <p>
+	 * 根据一批的执行情况调整并记录实体类的批量大小
+	 * </p>
+	 * <p>
+	 * 条数不足当前批量大小一半的批次（通常为最后一批）固定开销占比过高，不参与调整
+	 * </p>
+	 *
+	 * @param entityClass
+	 *            实体类
+	 * @param rows
+	 *            本批条数
+	 * @param elapsedNanos
+	 *            本批 flushStatements 耗时（纳秒）
+	 * @param payloadBytes
+	 *            本批估算的数据量（字节），未知时传 0
+	 * @return 下一批的批量大小
+	 */
+	public int adjust(Class<?> entityClass, int rows, long elapsedNanos, long payloadBytes) {
+		int current = batchSize(entityClass);
+		if (rows < 1 || rows * 2 < current) {
+			return current;
+		}
+		long next = rows * targetNanos / Math.max(elapsedNanos, 1);
+		next = Math.max(next, current / 2);
+		next = Math.min(next, current * 2L);
+		if (maxPayloadBytes > 0 && payloadBytes > 0) {
+			next = Math.min(next, maxPayloadBytes * rows / payloadBytes);
+		}
+		int batchSize = clamp(next);
+		batchSizes.put(entityClass, batchSize);
+		return batchSize;
+	}
+
+	/**
+	 * <p>
+	 * 已记录的各实体类批量大小，按类名排序
+	 * </p>
+	 */
+	public Map<String, Integer> getBatchSizes() {
+		Map<String, Integer> sizes = new TreeMap<>();
+		for (Map.Entry<Class<?>, Integer> entry : batchSizes.entrySet()) {
+			sizes.put(entry.getKey().getName(), entry.getValue());
+		}
+		return Collections.unmodifiableMap(sizes);
+	}
+
+	public void reset() {
+		batchSizes.clear();
+	}
+
+	private int clamp(long batchSize) {
+		return (int) Math.max(minBatchSize, Math.min(maxBatchSize, batchSize));
+	}
+
+}
@@ -0,0 +1,325 @@
+package com.nmg.mp.support.toolkit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.math.BigDecimal;
+import java.nio.charset.Charset;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Wrapper;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.springframework.util.ReflectionUtils;
+
+import com.baomidou.mybatisplus.entity.TableFieldInfo;
+import com.baomidou.mybatisplus.entity.TableInfo;
+import com.baomidou.mybatisplus.enums.IEnum;
+import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
+import com.nmg.mp.generator.config.rules.DbType;
+
+/**
+ * 类BulkLoadHelper.java的实现描述：通过 MySQL LOAD DATA LOCAL INFILE 或 PostgreSQL COPY FROM STDIN 批量导入实体
+ * <p>
+ * 实体按 TableInfo 的列顺序逐行编码为文本格式（制表符分隔，反斜杠转义，NULL 写作 \N，两种数据库格式一致），
+ * 边读取边编码，不生成临时文件；驱动相关的接口通过反射调用，不引入编译期依赖。
+ * MySQL 需在连接参数中开启 allowLoadLocalInfile=true，且服务端允许 local_infile
+ * </p>
+ */
+public class BulkLoadHelper {
+
+	private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final String[] MYSQL_STATEMENT_CLASSES = { "com.mysql.cj.jdbc.JdbcStatement",
+			"com.mysql.jdbc.Statement" };
+
+	private static final String PG_CONNECTION_CLASS = "org.postgresql.PGConnection";
+
+	private BulkLoadHelper() {
+	}
+
+	/**
+	 * <p>
+	 * 是否支持批量导入
+	 * </p>
+	 */
+	public static boolean isSupported(DbType dbType) {
+		return DbType.MYSQL == dbType || DbType.POSTGRE_SQL == dbType;
+	}
+
+	/**
+	 * <p>
+	 * 批量导入实体，自增主键不写入主键列，其余情况主键需已赋值
+	 * </p>
+	 *
+	 * @param connection
+	 *            数据库连接
+	 * @param dbType
+	 *            数据库类型，仅支持 MySQL、PostgreSQL
+	 * @param configuration
+	 *            MyBatis 配置，用于读取实体属性
+	 * @param tableInfo
+	 *            表信息
+	 * @param entities
+	 *            实体
+	 * @param preparer
+	 *            编码前处理每行实体（生成主键、插入填充等），可为 null
+	 * @return 导入行数
+	 */
+	public static long load(Connection connection, DbType dbType, Configuration configuration, TableInfo tableInfo,
+			Iterator<?> entities, RowPreparer preparer) throws SQLException {
+		List<String> columns = new ArrayList<>();
+		List<String> properties = new ArrayList<>();
+		if (!TableSqlBuilder.isAutoKey(tableInfo)) {
+			columns.add(tableInfo.getKeyColumn());
+			properties.add(tableInfo.getKeyProperty());
+		}
+		for (TableFieldInfo fieldInfo : tableInfo.getFieldList()) {
+			columns.add(fieldInfo.getColumn());
+			properties.add(fieldInfo.getProperty());
+		}
+		RowInputStream in = new RowInputStream(configuration, properties, entities, preparer,
+				DbType.POSTGRE_SQL == dbType);
+		if (DbType.MYSQL == dbType) {
+			return loadData(connection, tableInfo.getTableName(), columns, in);
+		}
+		if (DbType.POSTGRE_SQL == dbType) {
+			return copy(connection, tableInfo.getTableName(), columns, in);
+		}
+		throw new MybatisPlusException("Error: bulk load is not supported for dbType " + dbType);
+	}
+
+	private static long loadData(Connection connection, String tableName, List<String> columns, InputStream in)
+			throws SQLException {
+		StringBuilder sql = new StringBuilder(128);
+		sql.append("LOAD DATA LOCAL INFILE 'mp-support-bulk-load' INTO TABLE ").append(tableName)
+				.append(" CHARACTER SET ").append(mysqlCharset(connection))
+				.append(" FIELDS TERMINATED BY '\\t' ESCAPED BY '\\\\'")
+				.append(" LINES TERMINATED BY '\\n' ");
+		appendColumns(sql, columns);
+		try (Statement statement = connection.createStatement()) {
+			Object mysqlStatement = unwrap(statement, MYSQL_STATEMENT_CLASSES);
+			invoke(mysqlStatement, "setLocalInfileInputStream", new Class<?>[] { InputStream.class }, in);
+			return statement.executeUpdate(sql.toString());
+		}
+	}
+
+	/**
+	 * 输入流按 UTF-8 编码，服务端不支持 utf8mb4 时（MySQL 5.5.3 之前）使用 utf8
+	 */
+	private static String mysqlCharset(Connection connection) throws SQLException {
+		try (Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery("SHOW CHARACTER SET LIKE 'utf8mb4'")) {
+			return resultSet.next() ? "utf8mb4" : "utf8";
+		}
+	}
+
+	private static long copy(Connection connection, String tableName, List<String> columns, InputStream in)
+			throws SQLException {
+		StringBuilder sql = new StringBuilder(128);
+		sql.append("COPY ").append(tableName).append(" ");
+		appendColumns(sql, columns);
+		sql.append(" FROM STDIN");
+		Object pgConnection = unwrap(connection, PG_CONNECTION_CLASS);
+		Object copyManager = invoke(pgConnection, "getCopyAPI", new Class<?>[0]);
+		Object rows = invoke(copyManager, "copyIn", new Class<?>[] { String.class, InputStream.class },
+				sql.toString(), in);
+		return ((Number) rows).longValue();
+	}
+
+	private static void appendColumns(StringBuilder sql, List<String> columns) {
+		sql.append("(");
+		for (int i = 0; i < columns.size(); i++) {
+			if (i > 0) {
+				sql.append(",");
+			}
+			sql.append(columns.get(i));
+		}
+		sql.append(")");
+	}
+
+	private static Object unwrap(Wrapper wrapper, String... classNames) throws SQLException {
+		for (String className : classNames) {
+			Class<?> iface;
+			try {
+				iface = Class.forName(className, true, wrapper.getClass().getClassLoader());
+			} catch (ClassNotFoundException e) {
+				continue;
+			}
+			if (wrapper.isWrapperFor(iface)) {
+				return wrapper.unwrap(iface);
+			}
+		}
+		throw new MybatisPlusException("Error: bulk load requires a JDBC driver implementing " + classNames[0]);
+	}
+
+	private static Object invoke(Object target, String name, Class<?>[] parameterTypes, Object... args)
+			throws SQLException {
+		try {
+			Method method = target.getClass().getMethod(name, parameterTypes);
+			// 驱动实现类可能不是 public
+			ReflectionUtils.makeAccessible(method);
+			return method.invoke(target, args);
+		} catch (InvocationTargetException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof SQLException) {
+				throw (SQLException) cause;
+			}
+			throw new MybatisPlusException("Error: Cannot invoke " + name + ". Cause", cause);
+		} catch (ReflectiveOperationException e) {
+			throw new MybatisPlusException("Error: Cannot invoke " + name + ". Cause", e);
+		}
+	}
+
+	/**
+	 * 编码前对每行实体的处理
+	 */
+	public interface RowPreparer {
+
+		void prepare(MetaObject metaObject);
+	}
+
+	/**
+	 * 按需将实体编码为文本行的输入流
+	 */
+	static class RowInputStream extends InputStream {
+
+		private final Configuration configuration;
+
+		private final List<String> properties;
+
+		private final Iterator<?> entities;
+
+		private final RowPreparer preparer;
+
+		private final boolean postgres;
+
+		private final StringBuilder line = new StringBuilder(256);
+
+		private byte[] buffer = new byte[0];
+
+		private int position;
+
+		RowInputStream(Configuration configuration, List<String> properties, Iterator<?> entities,
+				RowPreparer preparer, boolean postgres) {
+			this.configuration = configuration;
+			this.properties = properties;
+			this.entities = entities;
+			this.preparer = preparer;
+			this.postgres = postgres;
+		}
+
+		@Override
+		public int read() throws IOException {
+			if (!fill()) {
+				return -1;
+			}
+			return buffer[position++] & 0xFF;
+		}
+
+		@Override
+		public int read(byte[] b, int off, int len) throws IOException {
+			if (len == 0) {
+				return 0;
+			}
+			int count = 0;
+			while (count < len && fill()) {
+				int n = Math.min(len - count, buffer.length - position);
+				System.arraycopy(buffer, position, b, off + count, n);
+				position += n;
+				count += n;
+			}
+			return count == 0 ? -1 : count;
+		}
+
+		/**
+		 * 当前行已读完时编码下一行，没有更多行时返回 false
+		 */
+		private boolean fill() {
+			while (position >= buffer.length) {
+				if (!entities.hasNext()) {
+					return false;
+				}
+				MetaObject metaObject = configuration.newMetaObject(entities.next());
+				if (null != preparer) {
+					preparer.prepare(metaObject);
+				}
+				line.setLength(0);
+				for (int i = 0; i < properties.size(); i++) {
+					if (i > 0) {
+						line.append('\t');
+					}
+					appendValue(properties.get(i), metaObject.getValue(properties.get(i)));
+				}
+				line.append('\n');
+				buffer = line.toString().getBytes(UTF_8);
+				position = 0;
+			}
+			return true;
+		}
+
+		private void appendValue(String property, Object value) {
+			if (null == value) {
+				line.append("\\N");
+			} else if (value instanceof Boolean) {
+				line.append(postgres ? ((Boolean) value ? "t" : "f") : ((Boolean) value ? "1" : "0"));
+			} else if (value instanceof BigDecimal) {
+				line.append(((BigDecimal) value).toPlainString());
+			} else if (value instanceof Number) {
+				line.append(value);
+			} else if (value instanceof java.sql.Date || value instanceof java.sql.Time
+					|| value instanceof Timestamp) {
+				line.append(value);
+			} else if (value instanceof Date) {
+				line.append(new Timestamp(((Date) value).getTime()));
+			} else if (value instanceof IEnum) {
+				appendEscaped(String.valueOf(((IEnum) value).getValue()));
+			} else if (value instanceof Enum) {
+				appendEscaped(((Enum<?>) value).name());
+			} else if (value instanceof byte[]) {
+				if (!postgres) {
+					throw new MybatisPlusException("Error: bulk load does not support binary property " + property);
+				}
+				// bytea 十六进制格式，反斜杠在文本格式中需转义
+				line.append("\\\\x");
+				for (byte b : (byte[]) value) {
+					line.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+				}
+			} else {
+				appendEscaped(value.toString());
+			}
+		}
+
+		private void appendEscaped(String text) {
+			for (int i = 0; i < text.length(); i++) {
+				char c = text.charAt(i);
+				switch (c) {
+				case '\\':
+					line.append("\\\\");
+					break;
+				case '\t':
+					line.append("\\t");
+					break;
+				case '\n':
+					line.append("\\n");
+					break;
+				case '\r':
+					line.append("\\r");
+					break;
+				default:
+					line.append(c);
+				}
+			}
+		}
+	}
+
+}
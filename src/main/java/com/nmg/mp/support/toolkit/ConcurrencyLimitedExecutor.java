@@ -0,0 +1,91 @@
+package com.nmg.mp.support.toolkit;
+
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 类ConcurrencyLimitedExecutor.java的实现描述：以信号量限制同时执行任务数的线程池包装
+ * <p>
+ * 用于每任务一线程的执行器（如虚拟线程），任务在执行线程上等待许可，超过上限的任务阻塞而不是占用数据库连接
+ * </p>
+ * <p>
+ * 等待许可时被中断（如 shutdownNow）的任务不再执行，{@link Future} 任务被取消
+ * </p>
+ */
+public class ConcurrencyLimitedExecutor extends AbstractExecutorService {
+
+	private final ExecutorService delegate;
+
+	private final Semaphore permits;
+
+	public ConcurrencyLimitedExecutor(ExecutorService delegate, int maxConcurrency) {
+		if (maxConcurrency < 1) {
+			throw new IllegalArgumentException("Error: maxConcurrency must be positive");
+		}
+		this.delegate = delegate;
+		this.permits = new Semaphore(maxConcurrency);
+	}
+
+	@Override
+	public void execute(final Runnable command) {
+		delegate.execute(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					permits.acquire();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+					if (command instanceof Future) {
+						// 未执行的任务取消，等待结果的调用方收到 CancellationException 而不是一直阻塞
+						((Future<?>) command).cancel(false);
+						return;
+					}
+					throw new IllegalStateException("Error: interrupted while waiting for execution permit", e);
+				}
+				try {
+					command.run();
+				} finally {
+					permits.release();
+				}
+			}
+		});
+	}
+
+	/**
+	 * 当前可用的许可数
+	 */
+	public int availablePermits() {
+		return permits.availablePermits();
+	}
+
+	@Override
+	public void shutdown() {
+		delegate.shutdown();
+	}
+
+	@Override
+	public List<Runnable> shutdownNow() {
+		return delegate.shutdownNow();
+	}
+
+	@Override
+	public boolean isShutdown() {
+		return delegate.isShutdown();
+	}
+
+	@Override
+	public boolean isTerminated() {
+		return delegate.isTerminated();
+	}
+
+	@Override
+	public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+		return delegate.awaitTermination(timeout, unit);
+	}
+
+}
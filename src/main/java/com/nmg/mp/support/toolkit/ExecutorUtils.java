@@ -0,0 +1,116 @@
+package com.nmg.mp.support.toolkit;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
+
+/**
+ * 类ExecutorUtils.java的实现描述：mp service 并行操作使用的线程池
+ */
+public class ExecutorUtils {
+
+	/**
+	 * 默认并行度，数据库操作受连接池限制，不宜过大
+	 */
+	public static final int DEFAULT_PARALLELISM = Math.min(4, Runtime.getRuntime().availableProcessors());
+
+	private ExecutorUtils() {
+	}
+
+	/**
+	 * <p>
+	 * 创建有界线程池：固定线程数、有界队列，队列满时由调用线程执行以形成背压，空闲线程自动回收
+	 * </p>
+	 *
+	 * @param poolName
+	 *            线程名前缀
+	 * @param threads
+	 *            线程数
+	 * @param queueCapacity
+	 *            队列容量
+	 * @return ExecutorService
+	 */
+	public static ExecutorService newBoundedExecutor(String poolName, int threads, int queueCapacity) {
+		return newBoundedExecutor(poolName, threads, queueCapacity, new ThreadPoolExecutor.CallerRunsPolicy());
+	}
+
+	/**
+	 * <p>
+	 * 创建有界线程池：固定线程数、有界队列，队列满时按 rejectedHandler 处理，空闲线程自动回收
+	 * </p>
+	 * <p>
+	 * 任务不能在调用线程执行（如异步执行不能参与调用方事务）时使用 AbortPolicy
+	 * </p>
+	 *
+	 * @param poolName
+	 *            线程名前缀
+	 * @param threads
+	 *            线程数
+	 * @param queueCapacity
+	 *            队列容量
+	 * @param rejectedHandler
+	 *            队列满时的拒绝策略
+	 * @return ExecutorService
+	 */
+	public static ExecutorService newBoundedExecutor(String poolName, int threads, int queueCapacity,
+			RejectedExecutionHandler rejectedHandler) {
+		CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(poolName + "-");
+		threadFactory.setDaemon(true);
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(queueCapacity), threadFactory, rejectedHandler);
+		executor.allowCoreThreadTimeOut(true);
+		return executor;
+	}
+
+	/**
+	 * <p>
+	 * 当前 JVM 是否支持虚拟线程（JDK 21+）
+	 * </p>
+	 */
+	public static boolean isVirtualThreadSupported() {
+		return null != virtualThreadFactoryMethod();
+	}
+
+	/**
+	 * <p>
+	 * 创建虚拟线程执行器：每个任务一个虚拟线程，以信号量将同时执行的任务数限制为 maxConcurrency（通常取连接池大小）
+	 * </p>
+	 * <p>
+	 * 运行时不支持虚拟线程时退化为 maxConcurrency 个线程的有界线程池，队列满时拒绝任务，任务不会在调用线程执行
+	 * </p>
+	 *
+	 * @param poolName
+	 *            线程名前缀（仅退化为线程池时使用）
+	 * @param maxConcurrency
+	 *            最大并发任务数
+	 * @return ExecutorService
+	 */
+	public static ExecutorService newVirtualThreadExecutor(String poolName, int maxConcurrency) {
+		Method factoryMethod = virtualThreadFactoryMethod();
+		if (null == factoryMethod) {
+			return newBoundedExecutor(poolName, maxConcurrency, 4096, new ThreadPoolExecutor.AbortPolicy());
+		}
+		try {
+			return new ConcurrencyLimitedExecutor((ExecutorService) factoryMethod.invoke(null), maxConcurrency);
+		} catch (ReflectiveOperationException e) {
+			throw new MybatisPlusException("Error: Cannot create virtual thread executor. Cause", e);
+		}
+	}
+
+	private static Method virtualThreadFactoryMethod() {
+		try {
+			return Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+		} catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+}
@@ -0,0 +1,53 @@
+package com.nmg.mp.support.toolkit;
+
+import org.apache.ibatis.reflection.MetaObject;
+
+import com.baomidou.mybatisplus.entity.TableInfo;
+import com.baomidou.mybatisplus.enums.IdType;
+import com.baomidou.mybatisplus.toolkit.IdWorker;
+import com.baomidou.mybatisplus.toolkit.StringUtils;
+
+/**
+ * 类IdHelper.java的实现描述：在执行插入语句之前生成主键
+ * <p>
+ * 用于不经过 MybatisDefaultParameterHandler 的插入（如 bulkLoad），或需要在插入前知道主键的场景（如按主键路由分片）
+ * </p>
+ */
+public class IdHelper {
+
+	private IdHelper() {
+	}
+
+	/**
+	 * <p>
+	 * 主键为 ID_WORKER / ID_WORKER_STR / UUID 且为空时生成主键，与 mybatis-plus 插入时的规则一致
+	 * </p>
+	 *
+	 * @param tableInfo
+	 *            表信息
+	 * @param metaObject
+	 *            实体的 MetaObject
+	 */
+	public static void assignId(TableInfo tableInfo, MetaObject metaObject) {
+		IdType idType = tableInfo.getIdType();
+		String keyProperty = tableInfo.getKeyProperty();
+		if (null == idType || StringUtils.isEmpty(keyProperty)
+				|| StringUtils.checkValNotNull(metaObject.getValue(keyProperty))) {
+			return;
+		}
+		switch (idType) {
+		case ID_WORKER:
+			metaObject.setValue(keyProperty, IdWorker.getId());
+			break;
+		case ID_WORKER_STR:
+			metaObject.setValue(keyProperty, IdWorker.getIdStr());
+			break;
+		case UUID:
+			metaObject.setValue(keyProperty, IdWorker.get32UUID());
+			break;
+		default:
+			break;
+		}
+	}
+
+}
@@ -0,0 +1,100 @@
+package com.nmg.mp.support.toolkit;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+
+import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.plugins.pagination.Pagination;
+import com.baomidou.mybatisplus.toolkit.SqlUtils;
+
+/**
+ * 类PageCountQuery.java的实现描述：分页查询的总数语句，与 PaginationInterceptor 生成的 COUNT 语句一致
+ * <p>
+ * 在拦截器之外生成总数语句，用于在单独的连接上与记录查询并行执行，或按语句及参数值缓存总数
+ * </p>
+ */
+public class PageCountQuery {
+
+	private final MappedStatement mappedStatement;
+
+	private final Object parameter;
+
+	private final BoundSql boundSql;
+
+	private final String countSql;
+
+	private final List<Object> key;
+
+	/**
+	 * @param configuration
+	 *            MyBatis 配置
+	 * @param statementId
+	 *            分页查询的 MappedStatement id
+	 * @param parameter
+	 *            查询参数
+	 * @param page
+	 *            分页参数，按 optimizeCountSql 生成总数语句
+	 */
+	public PageCountQuery(Configuration configuration, String statementId, Object parameter, Pagination page) {
+		this.mappedStatement = configuration.getMappedStatement(statementId);
+		this.parameter = parameter;
+		this.boundSql = mappedStatement.getBoundSql(parameter);
+		this.countSql = SqlUtils.getOptimizeCountSql(page.isOptimizeCountSql(), null, boundSql.getSql()).getSql();
+		List<Object> key = new ArrayList<>();
+		key.add(statementId);
+		key.add(countSql);
+		MetaObject metaObject = configuration.newMetaObject(parameter);
+		for (ParameterMapping parameterMapping : boundSql.getParameterMappings()) {
+			String property = parameterMapping.getProperty();
+			key.add(boundSql.hasAdditionalParameter(property) ? boundSql.getAdditionalParameter(property)
+					: metaObject.getValue(property));
+		}
+		this.key = Collections.unmodifiableList(key);
+	}
+
+	/**
+	 * <p>
+	 * 缓存键：语句 id、总数语句及各参数值
+	 * </p>
+	 */
+	public List<Object> getKey() {
+		return key;
+	}
+
+	/**
+	 * <p>
+	 * 打开新的 SqlSession 执行总数语句，不在事务中时使用单独的连接
+	 * </p>
+	 */
+	public int execute(SqlSessionFactory sqlSessionFactory) {
+		try (SqlSession sqlSession = sqlSessionFactory.openSession()) {
+			return execute(sqlSession.getConnection());
+		} catch (SQLException e) {
+			throw new MybatisPlusException("Error: Cannot execute selectPage count. Cause", e);
+		}
+	}
+
+	public int execute(Connection connection) throws SQLException {
+		try (PreparedStatement statement = connection.prepareStatement(countSql)) {
+			mappedStatement.getLang().createParameterHandler(mappedStatement, parameter, boundSql)
+					.setParameters(statement);
+			try (ResultSet resultSet = statement.executeQuery()) {
+				return resultSet.next() ? resultSet.getInt(1) : 0;
+			}
+		}
+	}
+
+}
@@ -0,0 +1,153 @@
+package com.nmg.mp.support.toolkit;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ResultMap;
+import org.apache.ibatis.mapping.ResultMapping;
+import org.apache.ibatis.mapping.ResultSetType;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.mapping.SqlSource;
+import org.apache.ibatis.session.Configuration;
+
+import com.baomidou.mybatisplus.mapper.SqlRunner;
+
+/**
+ * 类SqlScriptHelper.java的实现描述：注册执行自定义 SQL 的 MappedStatement
+ * <p>
+ * 与 {@link SqlRunner} 一样以 ${sql} 作为语句内容，参数 Map 中 {@link SqlRunner#SQL} 对应完整 SQL，
+ * 其余 key 供 SQL 中的 #{...} 引用。区别在于语句使用 MybatisXMLLanguageDriver 创建，
+ * 插入时会正常生成主键并执行字段填充（SqlRunner 的语句先于默认脚本驱动注册，不具备该能力）。
+ * </p>
+ */
+public class SqlScriptHelper {
+
+	public static final String NAMESPACE = SqlScriptHelper.class.getName();
+
+	public static final String INSERT = NAMESPACE + ".Insert";
+
+	public static final String UPDATE = NAMESPACE + ".Update";
+
+	public static final String DELETE = NAMESPACE + ".Delete";
+
+	private SqlScriptHelper() {
+	}
+
+	/**
+	 * <p>
+	 * 获取（不存在时注册）插入、更新、删除语句
+	 * </p>
+	 *
+	 * @param configuration
+	 *            MyBatis 配置
+	 * @param statement
+	 *            {@link #INSERT} {@link #UPDATE} {@link #DELETE}
+	 * @return 语句 ID
+	 */
+	public static String statement(Configuration configuration, String statement) {
+		if (configuration.hasStatement(statement, false)) {
+			return statement;
+		}
+		SqlCommandType sqlCommandType;
+		if (INSERT.equals(statement)) {
+			sqlCommandType = SqlCommandType.INSERT;
+		} else if (UPDATE.equals(statement)) {
+			sqlCommandType = SqlCommandType.UPDATE;
+		} else if (DELETE.equals(statement)) {
+			sqlCommandType = SqlCommandType.DELETE;
+		} else {
+			throw new IllegalArgumentException("Error: unknown statement " + statement);
+		}
+		return addStatement(configuration, statement, sqlCommandType, Integer.TYPE);
+	}
+
+	/**
+	 * <p>
+	 * 获取（不存在时注册）指定语句的流式查询副本：使用 FORWARD_ONLY 结果集及指定的 fetchSize，且不使用二级缓存
+	 * </p>
+	 *
+	 * @param configuration
+	 *            MyBatis 配置
+	 * @param statement
+	 *            原查询语句 ID
+	 * @param fetchSize
+	 *            JDBC fetchSize
+	 * @return 语句 ID
+	 */
+	public static String fetchStatement(Configuration configuration, String statement, int fetchSize) {
+		String fetchStatement = statement + "-Fetch" + (fetchSize == Integer.MIN_VALUE ? "Stream" : fetchSize);
+		if (configuration.hasStatement(fetchStatement, false)) {
+			return fetchStatement;
+		}
+		synchronized (configuration) {
+			if (!configuration.hasStatement(fetchStatement, false)) {
+				MappedStatement ms = configuration.getMappedStatement(statement, false);
+				MappedStatement.Builder builder = new MappedStatement.Builder(configuration, fetchStatement,
+						ms.getSqlSource(), ms.getSqlCommandType()).resource(ms.getResource())
+								.parameterMap(ms.getParameterMap()).resultMaps(ms.getResultMaps())
+								.statementType(ms.getStatementType()).resultSetType(ResultSetType.FORWARD_ONLY)
+								.fetchSize(fetchSize).timeout(ms.getTimeout()).flushCacheRequired(false).useCache(false)
+								.resultOrdered(ms.isResultOrdered()).keyGenerator(ms.getKeyGenerator())
+								.databaseId(ms.getDatabaseId()).lang(ms.getLang());
+				configuration.addMappedStatement(builder.build());
+			}
+		}
+		return fetchStatement;
+	}
+
+	/**
+	 * <p>
+	 * 获取（不存在时注册）指定查询语句的副本，结果按列名自动映射为 resultType，不经过实体的 ResultMap
+	 * </p>
+	 *
+	 * @param configuration
+	 *            MyBatis 配置
+	 * @param statement
+	 *            原查询语句 ID
+	 * @param resultType
+	 *            结果类型
+	 * @return 语句 ID
+	 */
+	public static String resultStatement(Configuration configuration, String statement, Class<?> resultType) {
+		String resultStatement = statement + "-" + resultType.getName();
+		if (configuration.hasStatement(resultStatement, false)) {
+			return resultStatement;
+		}
+		synchronized (configuration) {
+			if (!configuration.hasStatement(resultStatement, false)) {
+				MappedStatement ms = configuration.getMappedStatement(statement, false);
+				List<ResultMap> resultMaps = new ArrayList<>(1);
+				resultMaps.add(new ResultMap.Builder(configuration, resultStatement + "-Inline", resultType,
+						new ArrayList<ResultMapping>(0)).build());
+				MappedStatement.Builder builder = new MappedStatement.Builder(configuration, resultStatement,
+						ms.getSqlSource(), ms.getSqlCommandType()).resource(ms.getResource())
+								.parameterMap(ms.getParameterMap()).resultMaps(resultMaps)
+								.statementType(ms.getStatementType()).resultSetType(ms.getResultSetType())
+								.fetchSize(ms.getFetchSize()).timeout(ms.getTimeout()).flushCacheRequired(false)
+								.useCache(false).databaseId(ms.getDatabaseId()).lang(ms.getLang());
+				configuration.addMappedStatement(builder.build());
+			}
+		}
+		return resultStatement;
+	}
+
+	private static String addStatement(Configuration configuration, String statement, SqlCommandType sqlCommandType,
+			Class<?> resultType) {
+		synchronized (configuration) {
+			if (!configuration.hasStatement(statement, false)) {
+				SqlSource sqlSource = configuration.getDefaultScriptingLanguageInstance().createSqlSource(configuration,
+						SqlRunner.SQLScript, Map.class);
+				List<ResultMap> resultMaps = new ArrayList<>(1);
+				resultMaps.add(new ResultMap.Builder(configuration, statement + "-Inline", resultType,
+						new ArrayList<ResultMapping>(0)).build());
+				MappedStatement ms = new MappedStatement.Builder(configuration, statement, sqlSource, sqlCommandType)
+						.resultMaps(resultMaps).build();
+				configuration.addMappedStatement(ms);
+			}
+		}
+		return statement;
+	}
+
+}
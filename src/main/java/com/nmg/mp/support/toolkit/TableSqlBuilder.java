@@ -0,0 +1,393 @@
+package com.nmg.mp.support.toolkit;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.baomidou.mybatisplus.entity.TableFieldInfo;
+import com.baomidou.mybatisplus.entity.TableInfo;
+import com.baomidou.mybatisplus.enums.FieldFill;
+import com.baomidou.mybatisplus.enums.IdType;
+import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.toolkit.StringUtils;
+import com.nmg.mp.generator.config.rules.DbType;
+
+/**
+ * 类TableSqlBuilder.java的实现描述：根据 {@link TableInfo} 元数据拼装自定义 SQL
+ * <p>
+ * 生成的 SQL 通过 {@link SqlScriptHelper} 注册的 ${sql} 语句执行，其中的 #{...} 占位符在 ${sql} 替换后仍由 MyBatis
+ * 解析为预编译参数。
+ * </p>
+ */
+public class TableSqlBuilder {
+
+	/**
+	 * 参数 Map 中实体列表的 key，与 MybatisDefaultParameterHandler 约定一致，以便主键生成及字段填充生效
+	 */
+	public static final String LIST = "list";
+
+	/**
+	 * 参数 Map 中单个实体的 key，与 MybatisDefaultParameterHandler 约定一致，以便更新填充生效
+	 */
+	public static final String ENTITY = "et";
+
+	/**
+	 * 单条多值插入语句的最大行数（SQL Server 限制为 1000）
+	 */
+	public static final int MAX_VALUES_ROWS = 1000;
+
+	private TableSqlBuilder() {
+	}
+
+	/**
+	 * <p>
+	 * 是否由数据库生成主键（自增），此时插入语句不包含主键列
+	 * </p>
+	 *
+	 * @param tableInfo
+	 *            表信息
+	 * @return boolean
+	 */
+	public static boolean isAutoKey(TableInfo tableInfo) {
+		return StringUtils.isEmpty(tableInfo.getKeyProperty()) || tableInfo.getIdType() == IdType.AUTO;
+	}
+
+	/**
+	 * <p>
+	 * 插入语句包含的列数
+	 * </p>
+	 *
+	 * @param tableInfo
+	 *            表信息
+	 * @return int
+	 */
+	public static int insertColumnCount(TableInfo tableInfo) {
+		return tableInfo.getFieldList().size() + (isAutoKey(tableInfo) ? 0 : 1);
+	}
+
+	/**
+	 * <p>
+	 * 根据参数个数预算计算单条多值插入语句的行数
+	 * </p>
+	 *
+	 * @param tableInfo
+	 *            表信息
+	 * @param maxParameters
+	 *            单条语句允许的最大预编译参数个数
+	 * @return int
+	 */
+	public static int rowsPerStatement(TableInfo tableInfo, int maxParameters) {
+		int rows = maxParameters / Math.max(1, insertColumnCount(tableInfo));
+		return Math.max(1, Math.min(rows, MAX_VALUES_ROWS));
+	}
+
+	/**
+	 * <p>
+	 * INSERT INTO table (c1, c2) VALUES (#{list[0].p1}, #{list[0].p2}), (...)
+	 * </p>
+	 * <p>
+	 * 所有行使用相同的列，等同 insertAllColumn 语义，值为 null 的字段写入 NULL
+	 * </p>
+	 *
+	 * @param tableInfo
+	 *            表信息
+	 * @param rows
+	 *            行数
+	 * @return String
+	 */
+	public static String insertValues(TableInfo tableInfo, int rows) {
+		boolean autoKey = isAutoKey(tableInfo);
+		List<TableFieldInfo> fieldList = tableInfo.getFieldList();
+		StringBuilder sql = new StringBuilder(64 + rows * fieldList.size() * 24);
+		sql.append("INSERT INTO ").append(tableInfo.getTableName()).append(" (");
+		if (!autoKey) {
+			sql.append(tableInfo.getKeyColumn()).append(",");
+		}
+		for (TableFieldInfo fieldInfo : fieldList) {
+			sql.append(fieldInfo.getColumn()).append(",");
+		}
+		sql.setCharAt(sql.length() - 1, ')');
+		sql.append(" VALUES ");
+		appendValues(sql, tableInfo, rows, !autoKey);
+		return sql.toString();
+	}
+
+	/**
+	 * <p>
+	 * 按主键插入或更新的单条多行语句
+	 * </p>
+	 * <ul>
+	 * <li>MySQL：INSERT ... VALUES (...),(...) ON DUPLICATE KEY UPDATE</li>
+	 * <li>PostgreSQL：INSERT ... VALUES (...),(...) ON CONFLICT (key) DO UPDATE</li>
+	 * <li>Oracle：MERGE INTO ... USING (SELECT ... FROM DUAL UNION ALL ...)</li>
+	 * <li>SQL Server：MERGE INTO ... USING (VALUES (...),(...))</li>
+	 * </ul>
+	 * <p>
+	 * 更新时不覆盖主键及插入填充（{@link FieldFill#INSERT}）字段；字段配置了 update 表达式时与 updateById 一致使用表达式，
+	 * 表达式中的列为表中已有的值
+	 * </p>
+	 * <p>
+	 * 自增主键（{@link IdType#AUTO}）：MySQL 主键为 null 的行由数据库生成主键；Oracle、SQL Server 的 MERGE 插入分支不写主键列，
+	 * 主键为 null 的行总是插入；PostgreSQL 的 ON CONFLICT 需要主键值，不支持自增主键
+	 * </p>
+	 * <p>
+	 * Oracle 的占位符按属性类型指定 jdbcType，null 值不依赖 jdbcTypeForNull 配置（默认 OTHER，Oracle 驱动不支持）
+	 * </p>
+	 *
+	 * @param dbType
+	 *            数据库类型
+	 * @param tableInfo
+	 *            表信息
+	 * @param keyType
+	 *            主键属性类型，可为 null
+	 * @param rows
+	 *            行数
+	 * @return String
+	 */
+	public static String upsertValues(DbType dbType, TableInfo tableInfo, Class<?> keyType, int rows) {
+		if (StringUtils.isEmpty(tableInfo.getKeyProperty())) {
+			throw new MybatisPlusException("Error: upsert requires @TableId on " + tableInfo.getTableName());
+		}
+		boolean autoKey = tableInfo.getIdType() == IdType.AUTO;
+		if (autoKey && DbType.POSTGRE_SQL == dbType) {
+			throw new MybatisPlusException("Error: upsert with IdType.AUTO is not supported for " + dbType
+					+ ", ON CONFLICT requires the key of " + tableInfo.getTableName());
+		}
+		List<TableFieldInfo> fieldList = tableInfo.getFieldList();
+		String keyColumn = tableInfo.getKeyColumn();
+		StringBuilder sql = new StringBuilder(128 + rows * fieldList.size() * 32);
+		switch (dbType) {
+		case MYSQL:
+			sql.append(insertValuesWithKey(tableInfo, rows)).append(" ON DUPLICATE KEY UPDATE ");
+			if (updatableFields(fieldList).isEmpty()) {
+				return sql.append(keyColumn).append("=").append(keyColumn).toString();
+			}
+			for (TableFieldInfo fieldInfo : updatableFields(fieldList)) {
+				String column = fieldInfo.getColumn();
+				sql.append(column).append("=").append(updateValue(fieldInfo, column, "VALUES(" + column + ")")).append(",");
+			}
+			break;
+		case POSTGRE_SQL:
+			sql.append(insertValuesWithKey(tableInfo, rows)).append(" ON CONFLICT (").append(keyColumn).append(")");
+			if (updatableFields(fieldList).isEmpty()) {
+				return sql.append(" DO NOTHING").toString();
+			}
+			sql.append(" DO UPDATE SET ");
+			for (TableFieldInfo fieldInfo : updatableFields(fieldList)) {
+				String column = fieldInfo.getColumn();
+				sql.append(column).append("=").append(updateValue(fieldInfo, column, "EXCLUDED." + column)).append(",");
+			}
+			break;
+		case ORACLE:
+			sql.append("MERGE INTO ").append(tableInfo.getTableName()).append(" T USING (");
+			for (int i = 0; i < rows; i++) {
+				if (i > 0) {
+					sql.append(" UNION ALL ");
+				}
+				String prefix = LIST + "[" + i + "].";
+				sql.append("SELECT ");
+				appendPlaceholder(sql, prefix, tableInfo.getKeyProperty(), null != keyType ? keyType
+						: autoKey ? Long.class : null);
+				sql.append(" ").append(keyColumn);
+				for (TableFieldInfo fieldInfo : fieldList) {
+					sql.append(", ");
+					appendPlaceholder(sql, prefix, fieldInfo.getEl(), fieldInfo.getPropertyType());
+					sql.append(" ").append(fieldInfo.getColumn());
+				}
+				sql.append(" FROM DUAL");
+			}
+			sql.append(") S");
+			mergeClauses(sql, tableInfo, "(", ")", !autoKey);
+			return sql.toString();
+		case SQL_SERVER:
+			sql.append("MERGE INTO ").append(tableInfo.getTableName()).append(" AS T USING (VALUES ");
+			appendValues(sql, tableInfo, rows, true);
+			sql.append(") AS S (").append(keyColumn);
+			for (TableFieldInfo fieldInfo : fieldList) {
+				sql.append(",").append(fieldInfo.getColumn());
+			}
+			sql.append(")");
+			mergeClauses(sql, tableInfo, "", "", !autoKey);
+			return sql.append(";").toString();
+		default:
+			throw new MybatisPlusException("Error: upsert is not supported for " + dbType);
+		}
+		sql.setLength(sql.length() - 1);
+		return sql.toString();
+	}
+
+	/**
+	 * <p>
+	 * UPDATE table SET c1=#{et.p1}, c2=#{et.p2} WHERE key=#{et.key}
+	 * </p>
+	 * <p>
+	 * 只更新指定字段，值为 null 的字段写入 NULL；字段配置了 update 表达式时与 updateById 一致使用表达式；
+	 * 开启逻辑删除时追加未删除条件
+	 * </p>
+	 *
+	 * @param tableInfo
+	 *            表信息
+	 * @param fields
+	 *            更新的字段，不能为空
+	 * @return String
+	 */
+	public static String updateById(TableInfo tableInfo, List<TableFieldInfo> fields) {
+		if (StringUtils.isEmpty(tableInfo.getKeyProperty())) {
+			throw new MybatisPlusException("Error: updateById requires @TableId on " + tableInfo.getTableName());
+		}
+		String prefix = ENTITY + ".";
+		StringBuilder sql = new StringBuilder(64 + fields.size() * 32);
+		sql.append("UPDATE ").append(tableInfo.getTableName()).append(" SET ");
+		for (TableFieldInfo fieldInfo : fields) {
+			sql.append(fieldInfo.getColumn()).append("=");
+			if (StringUtils.isNotEmpty(fieldInfo.getUpdate())) {
+				sql.append(String.format(fieldInfo.getUpdate(), fieldInfo.getColumn())).append(",");
+			} else {
+				sql.append("#{").append(prefix).append(fieldInfo.getEl()).append("},");
+			}
+		}
+		sql.setLength(sql.length() - 1);
+		sql.append(" WHERE ").append(tableInfo.getKeyColumn()).append("=#{").append(prefix)
+				.append(tableInfo.getKeyProperty()).append("}");
+		if (tableInfo.isLogicDelete()) {
+			for (TableFieldInfo fieldInfo : tableInfo.getFieldList()) {
+				if (fieldInfo.isLogicDelete()) {
+					sql.append(" AND ").append(fieldInfo.getColumn()).append("=");
+					if (StringUtils.isCharSequence(fieldInfo.getPropertyType())) {
+						sql.append("'").append(fieldInfo.getLogicNotDeleteValue()).append("'");
+					} else {
+						sql.append(fieldInfo.getLogicNotDeleteValue());
+					}
+				}
+			}
+		}
+		return sql.toString();
+	}
+
+	/**
+	 * 包含主键列的多值插入语句
+	 */
+	private static String insertValuesWithKey(TableInfo tableInfo, int rows) {
+		StringBuilder sql = new StringBuilder();
+		sql.append("INSERT INTO ").append(tableInfo.getTableName()).append(" (").append(tableInfo.getKeyColumn());
+		for (TableFieldInfo fieldInfo : tableInfo.getFieldList()) {
+			sql.append(",").append(fieldInfo.getColumn());
+		}
+		sql.append(") VALUES ");
+		appendValues(sql, tableInfo, rows, true);
+		return sql.toString();
+	}
+
+	private static void appendValues(StringBuilder sql, TableInfo tableInfo, int rows, boolean withKey) {
+		for (int i = 0; i < rows; i++) {
+			if (i > 0) {
+				sql.append(",");
+			}
+			sql.append("(");
+			String prefix = LIST + "[" + i + "].";
+			if (withKey) {
+				sql.append("#{").append(prefix).append(tableInfo.getKeyProperty()).append("},");
+			}
+			for (TableFieldInfo fieldInfo : tableInfo.getFieldList()) {
+				sql.append("#{").append(prefix).append(fieldInfo.getEl()).append("},");
+			}
+			sql.setCharAt(sql.length() - 1, ')');
+		}
+	}
+
+	/**
+	 * Oracle 占位符 #{prefix.el,jdbcType=...}，el 已指定参数选项或类型未知时不追加 jdbcType
+	 */
+	private static void appendPlaceholder(StringBuilder sql, String prefix, String el, Class<?> propertyType) {
+		sql.append("#{").append(prefix).append(el);
+		String jdbcType = el.indexOf(',') < 0 ? jdbcType(propertyType) : null;
+		if (null != jdbcType) {
+			sql.append(",jdbcType=").append(jdbcType);
+		}
+		sql.append("}");
+	}
+
+	/**
+	 * 属性类型对应的 JdbcType 名称，未知类型返回 null
+	 */
+	private static String jdbcType(Class<?> type) {
+		if (null == type) {
+			return null;
+		}
+		if (CharSequence.class.isAssignableFrom(type) || Character.class == type || char.class == type
+				|| type.isEnum()) {
+			return "VARCHAR";
+		}
+		if (Boolean.class == type || boolean.class == type) {
+			return "BIT";
+		}
+		if (Number.class.isAssignableFrom(type) || type.isPrimitive()) {
+			return "NUMERIC";
+		}
+		if (java.sql.Date.class == type) {
+			return "DATE";
+		}
+		if (java.util.Date.class.isAssignableFrom(type)) {
+			return "TIMESTAMP";
+		}
+		if (byte[].class == type) {
+			return "BLOB";
+		}
+		return null;
+	}
+
+	/**
+	 * MERGE 语句的 ON / WHEN MATCHED / WHEN NOT MATCHED 部分，insertKey 为 false 时插入分支不写主键列
+	 */
+	private static void mergeClauses(StringBuilder sql, TableInfo tableInfo, String open, String close,
+			boolean insertKey) {
+		String keyColumn = tableInfo.getKeyColumn();
+		List<TableFieldInfo> updatable = updatableFields(tableInfo.getFieldList());
+		sql.append(" ON ").append(open).append("T.").append(keyColumn).append(" = S.").append(keyColumn).append(close);
+		if (!updatable.isEmpty()) {
+			sql.append(" WHEN MATCHED THEN UPDATE SET ");
+			for (TableFieldInfo fieldInfo : updatable) {
+				String column = fieldInfo.getColumn();
+				sql.append("T.").append(column).append(" = ").append(updateValue(fieldInfo, "T." + column, "S." + column))
+						.append(",");
+			}
+			sql.setLength(sql.length() - 1);
+		}
+		sql.append(" WHEN NOT MATCHED THEN INSERT (");
+		if (insertKey) {
+			sql.append(keyColumn).append(",");
+		}
+		for (TableFieldInfo fieldInfo : tableInfo.getFieldList()) {
+			sql.append(fieldInfo.getColumn()).append(",");
+		}
+		sql.setCharAt(sql.length() - 1, ')');
+		sql.append(" VALUES (");
+		if (insertKey) {
+			sql.append("S.").append(keyColumn).append(",");
+		}
+		for (TableFieldInfo fieldInfo : tableInfo.getFieldList()) {
+			sql.append("S.").append(fieldInfo.getColumn()).append(",");
+		}
+		sql.setCharAt(sql.length() - 1, ')');
+	}
+
+	/**
+	 * 冲突时字段的更新值：配置了 update 表达式时以目标表的列格式化表达式，否则取插入的值
+	 */
+	private static String updateValue(TableFieldInfo fieldInfo, String target, String inserted) {
+		return StringUtils.isNotEmpty(fieldInfo.getUpdate()) ? String.format(fieldInfo.getUpdate(), target) : inserted;
+	}
+
+	/**
+	 * 冲突时需要更新的字段，排除仅插入时填充的字段
+	 */
+	private static List<TableFieldInfo> updatableFields(List<TableFieldInfo> fieldList) {
+		List<TableFieldInfo> updatable = new ArrayList<>(fieldList.size());
+		for (TableFieldInfo fieldInfo : fieldList) {
+			if (FieldFill.INSERT != fieldInfo.getFieldFill()) {
+				updatable.add(fieldInfo);
+			}
+		}
+		return updatable;
+	}
+
+}
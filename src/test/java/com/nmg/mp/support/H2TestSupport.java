@@ -0,0 +1,106 @@
+package com.nmg.mp.support;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.h2.jdbcx.JdbcDataSource;
+
+import com.baomidou.mybatisplus.MybatisConfiguration;
+import com.baomidou.mybatisplus.MybatisSqlSessionTemplate;
+import com.baomidou.mybatisplus.entity.GlobalConfiguration;
+import com.baomidou.mybatisplus.plugins.PaginationInterceptor;
+import com.baomidou.mybatisplus.spring.MybatisSqlSessionFactoryBean;
+
+/**
+ * 类H2TestSupport.java的实现描述：基于 H2 内存库（MySQL 模式）的测试环境，每次创建独立的数据库
+ */
+public class H2TestSupport {
+
+	private static final AtomicInteger SEQ = new AtomicInteger();
+
+	private final DataSource dataSource;
+
+	private final SqlSessionFactory sqlSessionFactory;
+
+	private final TestUserService service;
+
+	public H2TestSupport() throws Exception {
+		this.dataSource = newDataSource();
+		MybatisSqlSessionFactoryBean factoryBean = new MybatisSqlSessionFactoryBean();
+		factoryBean.setDataSource(dataSource);
+		factoryBean.setConfiguration(new MybatisConfiguration());
+		GlobalConfiguration globalConfig = new GlobalConfiguration();
+		globalConfig.setDbType("h2");
+		factoryBean.setGlobalConfig(globalConfig);
+		factoryBean.setPlugins(new Interceptor[] { new PaginationInterceptor() });
+		this.sqlSessionFactory = factoryBean.getObject();
+		sqlSessionFactory.getConfiguration().addMapper(TestUserMapper.class);
+		this.service = new TestUserService(new MybatisSqlSessionTemplate(sqlSessionFactory).getMapper(TestUserMapper.class));
+	}
+
+	/**
+	 * 新建包含 t_user 表的独立数据库
+	 */
+	public static DataSource newDataSource() throws SQLException {
+		JdbcDataSource h2 = new JdbcDataSource();
+		h2.setURL("jdbc:h2:mem:mp-support-" + SEQ.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+		execute(h2, "CREATE TABLE t_user (id BIGINT PRIMARY KEY, name VARCHAR(50), age INT, email VARCHAR(100))");
+		return h2;
+	}
+
+	public static void execute(DataSource dataSource, String sql) throws SQLException {
+		try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+			statement.execute(sql);
+		}
+	}
+
+	public DataSource getDataSource() {
+		return dataSource;
+	}
+
+	public SqlSessionFactory getSqlSessionFactory() {
+		return sqlSessionFactory;
+	}
+
+	public TestUserService getService() {
+		return service;
+	}
+
+	/**
+	 * 绕过 service 直接执行 SQL
+	 */
+	public void execute(String sql) throws SQLException {
+		execute(dataSource, sql);
+	}
+
+	public long count(String sql) throws SQLException {
+		try (Connection connection = dataSource.getConnection();
+				Statement statement = connection.createStatement();
+				ResultSet resultSet = statement.executeQuery(sql)) {
+			resultSet.next();
+			return resultSet.getLong(1);
+		}
+	}
+
+	/**
+	 * id 从 firstId 开始连续、age 为 id % 10 的实体
+	 */
+	public static List<TestUser> users(long firstId, int size) {
+		List<TestUser> users = new ArrayList<>(size);
+		for (int i = 0; i < size; i++) {
+			long id = firstId + i;
+			users.add(new TestUser(id, "user" + id, (int) (id % 10)));
+		}
+		return users;
+	}
+
+}
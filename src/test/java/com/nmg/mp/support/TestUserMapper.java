@@ -0,0 +1,10 @@
+package com.nmg.mp.support;
+
+import com.baomidou.mybatisplus.mapper.BaseMapper;
+
+/**
+ * 类TestUserMapper.java的实现描述：测试实体 Mapper
+ */
+public interface TestUserMapper extends BaseMapper<TestUser> {
+
+}
@@ -0,0 +1,17 @@
+package com.nmg.mp.support;
+
+import com.nmg.mp.generator.config.rules.DbType;
+import com.nmg.mp.support.service.impl.MPServiceImpl;
+
+/**
+ * 类TestUserService.java的实现描述：测试实体 service
+ */
+public class TestUserService extends MPServiceImpl<TestUserMapper, TestUser> {
+
+	public TestUserService(TestUserMapper baseMapper) {
+		this.baseMapper = baseMapper;
+		// H2 以 MySQL 模式运行
+		setDbType(DbType.MYSQL);
+	}
+
+}
@@ -0,0 +1,94 @@
+package com.nmg.mp.support.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * 类SlowOperationLogTest.java的实现描述：慢操作的阈值、环形缓冲区覆盖及参数脱敏
+ */
+public class SlowOperationLogTest {
+
+	private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	@Test
+	public void ignoresOperationsBelowThreshold() {
+		SlowOperationLog log = new SlowOperationLog(100, TimeUnit.MILLISECONDS, 4);
+		log.record(String.class, "selectList", null, null, 99 * MILLIS, 1, true);
+		assertEquals(0, log.getTotal());
+		assertTrue(log.snapshot().isEmpty());
+
+		log.record(String.class, "selectList", null, null, 100 * MILLIS, 1, true);
+		assertEquals(1, log.getTotal());
+		SlowOperation slowOperation = log.snapshot().get(0);
+		assertEquals("selectList", slowOperation.getOperation());
+		assertEquals(100 * MILLIS, slowOperation.getElapsedNanos());
+		assertEquals(1, slowOperation.getRows());
+		assertTrue(slowOperation.isSuccess());
+	}
+
+	@Test
+	public void overwritesOldestWhenFull() {
+		SlowOperationLog log = new SlowOperationLog(1, TimeUnit.MILLISECONDS, 2);
+		log.record(String.class, "op1", null, null, MILLIS, 0, true);
+		log.record(String.class, "op2", null, null, MILLIS, 0, true);
+		log.record(String.class, "op3", null, null, MILLIS, 0, false);
+
+		List<SlowOperation> snapshot = log.snapshot();
+		assertEquals(3, log.getTotal());
+		assertEquals(2, snapshot.size());
+		assertEquals("op3", snapshot.get(0).getOperation());
+		assertEquals("op2", snapshot.get(1).getOperation());
+		assertEquals(2, log.dump().split("\n").length);
+
+		log.clear();
+		assertEquals(0, log.getTotal());
+		assertTrue(log.snapshot().isEmpty());
+	}
+
+	@Test
+	public void masksStringAndNumericValuesByDefault() {
+		SlowOperationLog log = new SlowOperationLog(0, TimeUnit.MILLISECONDS, 1);
+		Map<String, Object> params = new LinkedHashMap<>();
+		params.put("MPGENVAL1", "zhangsan");
+		params.put("MPGENVAL2", 13800138000L);
+		params.put("MPGENVAL3", 7);
+		params.put("MPGENVAL4", null);
+		params.put("MPGENVAL5", Boolean.TRUE);
+		log.record(String.class, "selectList", "name = #{ew.paramNameValuePairs.MPGENVAL1}", params, MILLIS, 0,
+				true);
+
+		SlowOperation slowOperation = log.snapshot().get(0);
+		Map<String, Object> masked = slowOperation.getParams();
+		assertEquals("z***n(8)", masked.get("MPGENVAL1"));
+		assertEquals("1***0(11)", masked.get("MPGENVAL2"));
+		assertEquals("**", masked.get("MPGENVAL3"));
+		assertNull(masked.get("MPGENVAL4"));
+		assertEquals(Boolean.TRUE, masked.get("MPGENVAL5"));
+		assertEquals("name = #{MPGENVAL1}", slowOperation.getSqlSegment());
+		// 原参数不受影响
+		assertEquals(13800138000L, params.get("MPGENVAL2"));
+	}
+
+	@Test
+	public void keepsValuesWithoutMasking() {
+		SlowOperationLog log = new SlowOperationLog(0, TimeUnit.MILLISECONDS, 1);
+		log.setParameterMasker(ParameterMasker.NONE);
+		Map<String, Object> params = new LinkedHashMap<>();
+		params.put("MPGENVAL1", "zhangsan");
+		params.put("MPGENVAL2", 13800138000L);
+		log.record(String.class, "selectList", null, params, MILLIS, 0, true);
+
+		Map<String, Object> recorded = log.snapshot().get(0).getParams();
+		assertEquals("zhangsan", recorded.get("MPGENVAL1"));
+		assertEquals(13800138000L, recorded.get("MPGENVAL2"));
+	}
+
+}
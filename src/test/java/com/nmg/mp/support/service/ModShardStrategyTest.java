@@ -0,0 +1,39 @@
+package com.nmg.mp.support.service;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.nmg.mp.support.TestUser;
+
+/**
+ * 类ModShardStrategyTest.java的实现描述：取模分片
+ */
+public class ModShardStrategyTest {
+
+	private final ModShardStrategy<TestUser> byId = new ModShardStrategy<>("id", true);
+
+	@Test
+	public void numericStringAndNumberShareShard() {
+		for (long id = 1000000000000L; id < 1000000000100L; id++) {
+			int expected = byId.shardOf(new TestUser(id, null, null), 7);
+			assertEquals(expected, byId.shardOfId(id, 7));
+			assertEquals(expected, byId.shardOfId(String.valueOf(id), 7));
+		}
+	}
+
+	@Test
+	public void negativeAndNonNumericKeysStayInRange() {
+		assertEquals(6, byId.shardOfId(-1L, 7));
+		assertEquals(6, byId.shardOfId("-1", 7));
+		int shard = byId.shardOfId("5f0c2ad1a3b94c0e8d6f", 7);
+		assertEquals(Math.floorMod("5f0c2ad1a3b94c0e8d6f".hashCode(), 7), shard);
+		assertEquals(Math.floorMod("99999999999999999999".hashCode(), 7), byId.shardOfId("99999999999999999999", 7));
+	}
+
+	@Test
+	public void nonKeyShardingBroadcastsById() {
+		assertEquals(-1, new ModShardStrategy<TestUser>("age", false).shardOfId(1L, 7));
+	}
+
+}
@@ -0,0 +1,79 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+
+/**
+ * 类MPAsyncServiceImplTest.java的实现描述：异步查询
+ */
+public class MPAsyncServiceImplTest {
+
+	private ThreadPoolExecutor executor;
+
+	private MPAsyncServiceImpl<TestUser> async;
+
+	private final CountDownLatch release = new CountDownLatch(1);
+
+	@Before
+	public void setUp() throws Exception {
+		H2TestSupport h2 = new H2TestSupport();
+		h2.getService().insertBatchValues(H2TestSupport.users(1, 3));
+		executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(1),
+				new ThreadPoolExecutor.AbortPolicy());
+		async = new MPAsyncServiceImpl<>(h2.getService(), executor);
+	}
+
+	@After
+	public void tearDown() {
+		release.countDown();
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void selectsOnExecutor() throws Exception {
+		assertEquals("user2", async.selectById(2L).get(5, TimeUnit.SECONDS).getName());
+	}
+
+	@Test
+	public void saturatedExecutorReturnsFailedFuture() throws Exception {
+		// 占满工作线程及队列
+		Runnable blocker = new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		executor.execute(blocker);
+		executor.execute(blocker);
+		ListenableFuture<TestUser> future = async.selectById(1L);
+		assertTrue(future.isDone());
+		try {
+			future.get();
+			fail();
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		}
+	}
+
+}
@@ -0,0 +1,92 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.mapper.EntityWrapper;
+import com.baomidou.mybatisplus.mapper.Wrapper;
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+import com.nmg.mp.support.service.Aggregate;
+import com.nmg.mp.support.service.GroupedDoubles;
+import com.nmg.mp.support.service.GroupedLongs;
+
+/**
+ * 类MPServiceImplAggregateTest.java的实现描述：在数据库中计算的聚合及分组聚合
+ */
+public class MPServiceImplAggregateTest {
+
+	private TestUserService service;
+
+	@Before
+	public void setUp() throws Exception {
+		service = new H2TestSupport().getService();
+		// age 为 id % 10
+		service.insertBatchValues(H2TestSupport.users(1, 25));
+	}
+
+	@Test
+	public void aggregates() {
+		Wrapper<TestUser> all = new EntityWrapper<>();
+		assertEquals(105, service.aggregateLong(Aggregate.SUM, "age", all));
+		assertEquals(9, service.aggregateLong(Aggregate.MAX, "age", all));
+		assertEquals(10, service.aggregateLong(Aggregate.COUNT_DISTINCT, "age", all));
+		assertEquals(4.2, service.aggregateDouble(Aggregate.AVG, "age * 1.0", all), 1e-9);
+		assertEquals(5, service.aggregateLong(Aggregate.MIN, "id", new EntityWrapper<TestUser>().eq("age", 5)));
+	}
+
+	@Test
+	public void emptyAggregates() {
+		Wrapper<TestUser> none = new EntityWrapper<TestUser>().gt("id", 100);
+		assertEquals(0, service.aggregateLong(Aggregate.SUM, "age", none));
+		assertEquals(0, service.aggregateLong(Aggregate.COUNT, "age", none));
+		assertTrue(Double.isNaN(service.aggregateDouble(Aggregate.MAX, "age", none)));
+	}
+
+	@Test
+	public void groupedAggregates() {
+		GroupedLongs counts = service.aggregateLongBy(Aggregate.COUNT, "id", "age", new EntityWrapper<TestUser>());
+		assertEquals(10, counts.size());
+		assertEquals(0, ((Number) counts.getKey(0)).intValue());
+		assertArrayEquals(new long[] { 2, 3, 3, 3, 3, 3, 2, 2, 2, 2 }, counts.getValues());
+		assertEquals(-1, counts.get("missing", -1));
+		GroupedDoubles averages = service.aggregateDoubleBy(Aggregate.AVG, "id * 1.0", "age",
+				new EntityWrapper<TestUser>().in("age", Arrays.asList(1, 2)));
+		assertEquals(2, averages.size());
+		assertArrayEquals(new double[] { 11, 12 }, averages.getValues(), 1e-9);
+	}
+
+	@Test
+	public void leavesCallerWrapperUntouched() {
+		Wrapper<TestUser> wrapper = new EntityWrapper<TestUser>().eq("age", 3).or().eq("age", 4);
+		String segment = wrapper.getSqlSegment();
+		assertEquals(13 + 14 + 23 + 24 + 3 + 4, service.aggregateLong(Aggregate.SUM, "id", wrapper));
+		service.aggregateLongBy(Aggregate.SUM, "id", "age", wrapper);
+		assertEquals(segment, wrapper.getSqlSegment());
+		assertNull(wrapper.getSqlSelect());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsOrderBy() {
+		service.aggregateLong(Aggregate.SUM, "age", new EntityWrapper<TestUser>().orderBy("id"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsGroupBy() {
+		service.aggregateLongBy(Aggregate.COUNT, "id", "age", new EntityWrapper<TestUser>().groupBy("name"));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsLimit() {
+		service.aggregateDouble(Aggregate.AVG, "age", new EntityWrapper<TestUser>().last("LIMIT 5"));
+	}
+
+}
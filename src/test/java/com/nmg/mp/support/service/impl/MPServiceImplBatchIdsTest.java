@@ -0,0 +1,99 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserMapper;
+import com.nmg.mp.support.TestUserService;
+
+/**
+ * 类MPServiceImplBatchIdsTest.java的实现描述：按 idChunkSize 拆分的 selectBatchIds 及 deleteBatchIds
+ */
+public class MPServiceImplBatchIdsTest {
+
+	private static final List<Long> IDS = Arrays.asList(9L, 2L, 99L, 7L, 2L, 5L, 1L, 8L, 100L, 4L);
+
+	private H2TestSupport h2;
+
+	private TestUserService service;
+
+	/**
+	 * 每次 selectBatchIds / deleteBatchIds 的主键数
+	 */
+	private final List<Integer> chunks = Collections.synchronizedList(new ArrayList<Integer>());
+
+	@Before
+	public void setUp() throws Exception {
+		h2 = new H2TestSupport();
+		service = h2.getService();
+		service.insertBatchValues(H2TestSupport.users(1, 10));
+		final TestUserMapper mapper = service.baseMapper;
+		service.baseMapper = (TestUserMapper) Proxy.newProxyInstance(getClass().getClassLoader(),
+				new Class<?>[] { TestUserMapper.class }, new InvocationHandler() {
+
+					@Override
+					public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+						if (method.getName().endsWith("BatchIds")) {
+							chunks.add(((Collection<?>) args[0]).size());
+						}
+						try {
+							return method.invoke(mapper, args);
+						} catch (InvocationTargetException e) {
+							throw e.getCause();
+						}
+					}
+				});
+		service.setIdChunkSize(3);
+	}
+
+	@Test
+	public void selectBatchIdsKeepsOrderAndSkipsDuplicatesAndMissing() {
+		assertEquals(Arrays.asList(9L, 2L, 7L, 5L, 1L, 8L, 4L), ids(service.selectBatchIds(IDS)));
+		// 去重后 9 个主键，每批 3 个
+		assertEquals(Arrays.asList(3, 3, 3), chunks);
+	}
+
+	@Test
+	public void selectBatchIdsInParallelChunks() {
+		service.setParallelIdChunks(true);
+		assertEquals(Arrays.asList(9L, 2L, 7L, 5L, 1L, 8L, 4L), ids(service.selectBatchIds(IDS)));
+		assertEquals(Arrays.asList(3, 3, 3), chunks);
+	}
+
+	@Test
+	public void selectBatchIdsWithinOneChunk() {
+		assertEquals(Arrays.asList(3L, 1L), ids(service.selectBatchIds(Arrays.asList(3L, 1L, 3L, 42L))));
+		assertEquals(Collections.singletonList(3), chunks);
+	}
+
+	@Test
+	public void deleteBatchIdsAcrossChunks() throws Exception {
+		service.deleteBatchIds(Arrays.asList(1L, 2L, 3L, 4L, 5L, 6L, 7L, 99L));
+		assertEquals(Arrays.asList(3, 3, 2), chunks);
+		assertEquals(3, h2.count("SELECT COUNT(*) FROM t_user"));
+		assertEquals(0, h2.count("SELECT COUNT(*) FROM t_user WHERE id <= 7"));
+	}
+
+	private static List<Long> ids(List<TestUser> users) {
+		List<Long> ids = new ArrayList<>();
+		for (TestUser user : users) {
+			ids.add(user.getId());
+		}
+		return ids;
+	}
+
+}
@@ -0,0 +1,83 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+import com.nmg.mp.support.metrics.OperationStats;
+import com.nmg.mp.support.metrics.SimpleMetricsRegistry;
+import com.nmg.mp.support.toolkit.AdaptiveBatchSizer;
+
+/**
+ * 类MPServiceImplBatchSizeTest.java的实现描述：按 batchSize 刷新的批量操作
+ */
+public class MPServiceImplBatchSizeTest {
+
+	private H2TestSupport h2;
+
+	private TestUserService service;
+
+	@Before
+	public void setUp() throws Exception {
+		h2 = new H2TestSupport();
+		service = h2.getService();
+		service.insertBatchValues(H2TestSupport.users(1, 5));
+	}
+
+	@Test
+	public void deleteBatchIdsFlushesEveryBatch() throws Exception {
+		assertEquals(3, service.deleteBatchIds(Arrays.asList(1L, 2L, 3L, 99L), 2));
+		assertEquals(2, h2.count("SELECT COUNT(*) FROM t_user"));
+	}
+
+	@Test
+	public void recordsConfiguredBatchSize() {
+		SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+		service.setMetricsRegistry(registry);
+		service.insertBatch(H2TestSupport.users(10, 9), 4);
+		OperationStats stats = registry.getStats(TestUser.class, "insertBatch");
+		assertEquals(9, stats.getRows());
+		assertEquals(4, stats.getLastBatchSize());
+		service.insertBatchValues(H2TestSupport.users(20, 3), 10);
+		// 每行 4 个参数
+		assertEquals(2, registry.getStats(TestUser.class, "insertBatchValues").getLastBatchSize());
+	}
+
+	@Test
+	public void recordsEachAdaptiveBatchSize() {
+		SimpleMetricsRegistry registry = new SimpleMetricsRegistry();
+		service.setMetricsRegistry(registry);
+		AdaptiveBatchSizer sizer = new AdaptiveBatchSizer(1, TimeUnit.MINUTES, 1, 100);
+		sizer.setInitialBatchSize(4);
+		service.setAdaptiveBatchSizer(sizer);
+		// 每批远低于目标耗时，批量大小依次为 4、8
+		service.insertBatch(H2TestSupport.users(10, 10));
+		OperationStats stats = registry.getStats(TestUser.class, "insertBatch");
+		assertEquals(8, stats.getLastBatchSize());
+		assertEquals(6, stats.getMeanBatchSize());
+		assertEquals(16, sizer.batchSize(TestUser.class));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void deleteBatchIdsRejectsNonPositiveBatchSize() {
+		service.deleteBatchIds(Arrays.asList(1L, 2L), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void updateBatchByIdRejectsNonPositiveBatchSize() {
+		service.updateBatchById(H2TestSupport.users(1, 2), 0);
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void insertBatchRejectsNonPositiveBatchSize() {
+		service.insertBatch(H2TestSupport.users(10, 2), 0);
+	}
+
+}
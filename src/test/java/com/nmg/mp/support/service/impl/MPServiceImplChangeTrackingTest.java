@@ -0,0 +1,47 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+
+/**
+ * 类MPServiceImplChangeTrackingTest.java的实现描述：修改跟踪时 updateById 只更新修改过的字段
+ */
+public class MPServiceImplChangeTrackingTest {
+
+	private H2TestSupport h2;
+
+	private TestUserService service;
+
+	@Before
+	public void setUp() throws Exception {
+		h2 = new H2TestSupport();
+		service = h2.getService();
+		service.insertBatchValues(H2TestSupport.users(1, 3));
+		service.setChangeTracking(true);
+	}
+
+	@Test
+	public void updatesOnlyChangedFields() throws Exception {
+		TestUser user = service.selectById(2L);
+		h2.execute("UPDATE t_user SET age = 42, name = 'other' WHERE id = 2");
+		user.setName("changed");
+		assertTrue(service.updateById(user));
+		assertEquals(1, h2.count("SELECT COUNT(*) FROM t_user WHERE id = 2 AND name = 'changed' AND age = 42"));
+	}
+
+	@Test
+	public void unchangedEntityIsNotWritten() throws Exception {
+		TestUser user = service.selectById(3L);
+		h2.execute("UPDATE t_user SET name = 'other' WHERE id = 3");
+		assertTrue(service.updateById(user));
+		assertEquals(1, h2.count("SELECT COUNT(*) FROM t_user WHERE id = 3 AND name = 'other'"));
+	}
+
+}
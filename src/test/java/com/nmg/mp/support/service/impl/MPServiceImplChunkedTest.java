@@ -0,0 +1,71 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.mapper.EntityWrapper;
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+import com.nmg.mp.support.service.ChunkOptions;
+
+/**
+ * 类MPServiceImplChunkedTest.java的实现描述：按主键分批删除及更新
+ */
+public class MPServiceImplChunkedTest {
+
+	private H2TestSupport h2;
+
+	private TestUserService service;
+
+	@Before
+	public void setUp() throws Exception {
+		h2 = new H2TestSupport();
+		service = h2.getService();
+		service.insertBatchValues(H2TestSupport.users(1, 25));
+	}
+
+	@Test
+	public void deleteChunkedWalksKeys() throws Exception {
+		long rows = service.deleteChunked(new EntityWrapper<TestUser>().lt("age", 5), new ChunkOptions().setChunkSize(4));
+		assertEquals(14, rows);
+		assertEquals(0, h2.count("SELECT COUNT(*) FROM t_user WHERE age < 5"));
+		assertEquals(11, h2.count("SELECT COUNT(*) FROM t_user"));
+	}
+
+	@Test
+	public void updateChunkedWalksKeys() throws Exception {
+		TestUser entity = new TestUser(null, "chunked", null);
+		long rows = service.updateByWrapperChunked(entity, new EntityWrapper<TestUser>().ge("age", 5),
+				new ChunkOptions().setChunkSize(3));
+		assertEquals(11, rows);
+		assertEquals(11, h2.count("SELECT COUNT(*) FROM t_user WHERE name = 'chunked'"));
+	}
+
+	@Test
+	public void keyValueIgnoresPaginationColumns() {
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("ROW_ID", 1);
+		row.put("ID", 42L);
+		assertEquals(42L, MPServiceImpl.keyValue(row, "id"));
+		row = new LinkedHashMap<>();
+		row.put("__row_number__", 1L);
+		row.put("id", 7L);
+		assertEquals(7L, MPServiceImpl.keyValue(row, "[id]"));
+	}
+
+	@Test(expected = MybatisPlusException.class)
+	public void keyValueRequiresKeyColumn() {
+		Map<String, Object> row = new LinkedHashMap<>();
+		row.put("ROW_ID", 1);
+		row.put("other", 2L);
+		MPServiceImpl.keyValue(row, "id");
+	}
+
+}
@@ -0,0 +1,112 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.io.Serializable;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+import com.nmg.mp.support.service.EntityCache;
+
+/**
+ * 类MPServiceImplEntityCacheTest.java的实现描述：写操作前后的缓存失效
+ */
+public class MPServiceImplEntityCacheTest {
+
+	private H2TestSupport h2;
+
+	private TestUserService service;
+
+	private RecordingCache cache;
+
+	@Before
+	public void setUp() throws Exception {
+		h2 = new H2TestSupport();
+		service = h2.getService();
+		service.insertBatchValues(H2TestSupport.users(1, 5));
+		cache = new RecordingCache();
+		service.setEntityCache(cache);
+	}
+
+	@Test
+	public void updateByIdEvictsBeforeAndAfterWrite() throws Exception {
+		TestUser stale = service.selectById(1L);
+		TestUser user = new TestUser(1L, "changed", 1);
+		// 写入前的失效之后，并发读取把旧数据重新放入缓存
+		cache.repopulate(1L, stale);
+		service.updateById(user);
+		assertEquals(Arrays.asList("user1", "changed"), cache.namesAtEviction);
+		assertEquals("changed", service.selectById(1L).getName());
+	}
+
+	@Test
+	public void deleteByIdEvictsBeforeAndAfterWrite() throws Exception {
+		cache.repopulate(2L, service.selectById(2L));
+		service.deleteById(2L);
+		assertEquals(Arrays.asList("user2", null), cache.namesAtEviction);
+		assertNull(cache.get(2L));
+		assertNull(service.selectById(2L));
+	}
+
+	@Test
+	public void batchWritesEvictAfterWrite() throws Exception {
+		cache.repopulate(3L, service.selectById(3L));
+		service.deleteBatchIds(Arrays.asList(3L, 4L));
+		assertNull(cache.get(3L));
+		cache.repopulate(5L, service.selectById(5L));
+		TestUser user = new TestUser(5L, "batch", 5);
+		service.updateBatchById(Arrays.asList(user), 10);
+		assertEquals("batch", service.selectById(5L).getName());
+	}
+
+	/**
+	 * 记录每次失效时数据库中的 name，并可模拟写入期间的并发读取
+	 */
+	private class RecordingCache extends EntityCache<TestUser> {
+
+		private final List<String> namesAtEviction = new ArrayList<>();
+
+		private Serializable repopulateId;
+
+		private TestUser repopulateEntity;
+
+		RecordingCache() {
+			super(100, 0, TimeUnit.SECONDS);
+		}
+
+		void repopulate(Serializable id, TestUser entity) {
+			this.repopulateId = id;
+			this.repopulateEntity = entity;
+		}
+
+		@Override
+		public void evict(Serializable id) {
+			super.evict(id);
+			namesAtEviction.add(name(id));
+			if (id.equals(repopulateId)) {
+				put(id, repopulateEntity);
+				repopulateId = null;
+			}
+		}
+
+		private String name(Serializable id) {
+			try {
+				return h2.count("SELECT COUNT(*) FROM t_user WHERE id = " + id) == 0 ? null
+						: service.baseMapper.selectById(id).getName();
+			} catch (SQLException e) {
+				throw new IllegalStateException(e);
+			}
+		}
+	}
+
+}
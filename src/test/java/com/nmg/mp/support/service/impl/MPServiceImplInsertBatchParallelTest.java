@@ -0,0 +1,124 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+import com.nmg.mp.support.service.ParallelBatchResult;
+import com.nmg.mp.support.service.PartitionResult;
+
+/**
+ * 类MPServiceImplInsertBatchParallelTest.java的实现描述：并行分区插入
+ */
+public class MPServiceImplInsertBatchParallelTest {
+
+	private H2TestSupport h2;
+
+	private TestUserService service;
+
+	private ThreadPoolExecutor executor;
+
+	@Before
+	public void setUp() throws Exception {
+		h2 = new H2TestSupport();
+		service = h2.getService();
+		// 线程池很快饱和，CallerRunsPolicy 会把任务退回调用线程
+		executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(1),
+				new ThreadPoolExecutor.CallerRunsPolicy());
+		service.setParallelExecutor(executor);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void insertsAllPartitionsWhenExecutorSaturated() throws Exception {
+		ParallelBatchResult result = service.insertBatchParallel(H2TestSupport.users(1, 50), 5);
+		assertTrue(result.isSuccess());
+		assertEquals(10, result.getPartitions().size());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(i, result.getPartitions().get(i).getIndex());
+		}
+		assertEquals(50, result.getAffectedRows());
+		assertEquals(50, h2.count("SELECT COUNT(*) FROM t_user"));
+	}
+
+	@Test
+	public void retriesWhenExecutorOccupiedByOtherWork() throws Exception {
+		// 其他任务占满工作线程及队列，本次调用尚无已提交的分区
+		final CountDownLatch release = new CountDownLatch(1);
+		Runnable blocker = new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		executor.execute(blocker);
+		executor.execute(blocker);
+		Thread releaser = new Thread(new Runnable() {
+
+			@Override
+			public void run() {
+				try {
+					Thread.sleep(200);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+				release.countDown();
+			}
+		});
+		releaser.start();
+
+		ParallelBatchResult result = service.insertBatchParallel(H2TestSupport.users(1, 10), 5);
+		releaser.join();
+		assertTrue(result.isSuccess());
+		assertEquals(2, result.getPartitions().size());
+		assertEquals(10, result.getAffectedRows());
+		assertEquals(10, h2.count("SELECT COUNT(*) FROM t_user"));
+	}
+
+	@Test
+	public void failsPartitionsWhenExecutorShutDown() throws Exception {
+		executor.shutdown();
+		ParallelBatchResult result = service.insertBatchParallel(H2TestSupport.users(1, 10), 5, 5, true);
+		assertFalse(result.isSuccess());
+		assertEquals(2, result.getPartitions().size());
+		assertEquals(10, result.getFailedRows());
+		assertEquals(0, h2.count("SELECT COUNT(*) FROM t_user"));
+	}
+
+	@Test
+	public void failedPartitionReportsNoAffectedRows() throws Exception {
+		List<TestUser> users = H2TestSupport.users(1, 10);
+		// 第一个分区最后一行主键冲突
+		users.get(4).setId(1L);
+		ParallelBatchResult result = service.insertBatchParallel(users, 5, 2, false);
+		assertFalse(result.isSuccess());
+		PartitionResult failed = result.getPartitions().get(0);
+		assertFalse(failed.isSuccess());
+		assertEquals(0, failed.getAffectedRows());
+		assertEquals(5, failed.getFailedRows());
+		assertEquals(10, result.getAffectedRows() + result.getFailedRows());
+	}
+
+}
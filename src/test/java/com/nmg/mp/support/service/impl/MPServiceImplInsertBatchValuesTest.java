@@ -0,0 +1,54 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+
+/**
+ * 类MPServiceImplInsertBatchValuesTest.java的实现描述：多值插入
+ */
+public class MPServiceImplInsertBatchValuesTest {
+
+	private H2TestSupport h2;
+
+	private TestUserService service;
+
+	@Before
+	public void setUp() throws Exception {
+		h2 = new H2TestSupport();
+		service = h2.getService();
+	}
+
+	@Test
+	public void insertsAllRowsAcrossStatements() throws Exception {
+		// 每行 4 个参数，参数上限 10 时每条语句 2 行
+		assertTrue(service.insertBatchValues(H2TestSupport.users(1, 7), 10));
+		assertEquals(7, h2.count("SELECT COUNT(*) FROM t_user"));
+		TestUser user = service.selectById(7L);
+		assertEquals("user7", user.getName());
+		assertEquals(Integer.valueOf(7), user.getAge());
+	}
+
+	@Test
+	public void flushesStatementsInJdbcBatches() throws Exception {
+		// 25 条 2 行语句，跨多个 JDBC 批次，最后一条语句 1 行
+		assertTrue(service.insertBatchValues(H2TestSupport.users(1, 51), 10));
+		assertEquals(51, h2.count("SELECT COUNT(*) FROM t_user"));
+		assertEquals(1, h2.count("SELECT COUNT(*) FROM t_user WHERE id = 51 AND name = 'user51'"));
+	}
+
+	@Test
+	public void generatesIdsBeforeInsert() throws Exception {
+		TestUser user = new TestUser(null, "generated", 1);
+		assertTrue(service.insertBatchValues(java.util.Collections.singletonList(user)));
+		assertTrue(null != user.getId());
+		assertEquals("generated", service.selectById(user.getId()).getName());
+	}
+
+}
@@ -0,0 +1,75 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.mapper.EntityWrapper;
+import com.baomidou.mybatisplus.mapper.Wrapper;
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+import com.nmg.mp.support.service.KeysetPage;
+
+/**
+ * 类MPServiceImplKeysetPageTest.java的实现描述：游标翻页
+ */
+public class MPServiceImplKeysetPageTest {
+
+	private H2TestSupport h2;
+
+	private TestUserService service;
+
+	@Before
+	public void setUp() throws Exception {
+		h2 = new H2TestSupport();
+		service = h2.getService();
+		// age 为 id % 10，按 age 排序时存在重复值
+		service.insertBatchValues(H2TestSupport.users(1, 25));
+	}
+
+	@Test
+	public void walksAllRowsBySortColumnWithoutTouchingWrapper() {
+		Wrapper<TestUser> wrapper = new EntityWrapper<TestUser>().gt("id", 2).or().eq("id", 1);
+		String segment = wrapper.getSqlSegment();
+		List<Long> ids = new ArrayList<>();
+		int previousAge = -1;
+		KeysetPage<TestUser> page = new KeysetPage<>(4, "age", true);
+		while (true) {
+			page = service.selectKeysetPage(page, wrapper);
+			for (TestUser user : page.getRecords()) {
+				assertTrue(user.getAge() >= previousAge);
+				previousAge = user.getAge();
+				ids.add(user.getId());
+			}
+			if (!page.isHasNext()) {
+				break;
+			}
+			page = page.next();
+		}
+		// id 2 被条件排除
+		assertEquals(24, ids.size());
+		assertFalse(ids.contains(2L));
+		assertEquals(segment, wrapper.getSqlSegment());
+	}
+
+	@Test
+	public void skipsNullSortValues() throws Exception {
+		h2.execute("UPDATE t_user SET age = NULL WHERE id <= 5");
+		KeysetPage<TestUser> page = service.selectKeysetPage(new KeysetPage<TestUser>(100, "age", false), null);
+		assertEquals(20, page.getRecords().size());
+		assertFalse(page.isHasNext());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsWrapperWithOrderBy() {
+		service.selectKeysetPage(new KeysetPage<TestUser>(10), new EntityWrapper<TestUser>().orderBy("name"));
+	}
+
+}
@@ -0,0 +1,82 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import java.util.concurrent.TimeUnit;
+
+import javax.sql.DataSource;
+
+import org.apache.ibatis.mapping.Environment;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.SqlSessionFactoryBuilder;
+import org.apache.ibatis.transaction.jdbc.JdbcTransactionFactory;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.mapper.EntityWrapper;
+import com.baomidou.mybatisplus.mapper.SqlHelper;
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+
+/**
+ * 类MPServiceImplReplicaTest.java的实现描述：读写分离
+ */
+public class MPServiceImplReplicaTest {
+
+	private H2TestSupport h2;
+
+	private TestUserService service;
+
+	private DataSource replica;
+
+	@Before
+	public void setUp() throws Exception {
+		h2 = new H2TestSupport();
+		service = h2.getService();
+		service.insertBatchValues(H2TestSupport.users(1, 3));
+		replica = H2TestSupport.newDataSource();
+		H2TestSupport.execute(replica, "INSERT INTO t_user (id, name, age) VALUES (100, 'replica', 1)");
+	}
+
+	@After
+	public void tearDown() {
+		// 清除当前线程的写标记，避免影响其他测试
+		service.setReadYourWritesWindow(0, TimeUnit.SECONDS);
+		service.readFromPrimary();
+	}
+
+	@Test
+	public void readsFromReplicaWithoutRebindingTableInfo() throws Exception {
+		Object configMark = SqlHelper.table(TestUser.class).getConfigMark();
+		service.setReplicaDataSource(replica);
+		assertSame(configMark, SqlHelper.table(TestUser.class).getConfigMark());
+		assertEquals("replica", service.selectById(100L).getName());
+		assertEquals(1, service.selectCount(new EntityWrapper<TestUser>()));
+		assertNull(service.selectById(1L));
+	}
+
+	@Test
+	public void readsYourWritesAcrossServices() throws Exception {
+		service.setReplicaDataSource(replica);
+		TestUserService other = new TestUserService(service.baseMapper);
+		other.setReplicaDataSource(replica);
+		service.insert(new TestUser(4L, "written", 4));
+		// 写操作后同一线程在窗口期内读主库，其他 service 同样生效
+		assertNotNull(other.selectById(4L));
+		assertNull(other.selectById(100L));
+	}
+
+	@Test
+	public void acceptsReplicaSqlSessionFactoryWithoutMappers() throws Exception {
+		Configuration configuration = new Configuration(
+				new Environment("replica", new JdbcTransactionFactory(), replica));
+		service.setReplicaSqlSessionFactory(new SqlSessionFactoryBuilder().build(configuration));
+		assertEquals("replica", service.selectById(100L).getName());
+	}
+
+}
@@ -0,0 +1,118 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.mapper.EntityWrapper;
+import com.baomidou.mybatisplus.mapper.Wrapper;
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+
+/**
+ * 类MPServiceImplSelectColumnsTest.java的实现描述：只查询指定列的投影查询
+ */
+public class MPServiceImplSelectColumnsTest {
+
+	private H2TestSupport h2;
+
+	private TestUserService service;
+
+	@Before
+	public void setUp() throws Exception {
+		h2 = new H2TestSupport();
+		service = h2.getService();
+		service.insertBatchValues(H2TestSupport.users(1, 5));
+		h2.execute("INSERT INTO t_user (id, name) VALUES (6, 'no age')");
+	}
+
+	@Test
+	public void selectColumnsAsMaps() {
+		Wrapper<TestUser> wrapper = new EntityWrapper<TestUser>().le("id", 2).orderBy("id");
+		List<Map<String, Object>> rows = service.selectColumns(wrapper, "id", "name");
+		assertEquals(2, rows.size());
+		assertEquals(2, rows.get(0).size());
+		assertEquals("user1", value(rows.get(0), "name"));
+		assertEquals(2L, ((Number) value(rows.get(1), "id")).longValue());
+		assertNull(wrapper.getSqlSelect());
+	}
+
+	@Test
+	public void selectColumnsIntoResultType() {
+		List<NameAge> rows = service.selectColumns(NameAge.class, new EntityWrapper<TestUser>().eq("id", 3), "name",
+				"age");
+		assertEquals(1, rows.size());
+		assertEquals("user3", rows.get(0).getName());
+		assertEquals(Integer.valueOf(3), rows.get(0).getAge());
+	}
+
+	@Test
+	public void restoresCallerSqlSelect() {
+		Wrapper<TestUser> wrapper = new EntityWrapper<TestUser>().setSqlSelect("id, email").orderBy("id");
+		service.selectColumns(wrapper, "name");
+		assertEquals("id, email", wrapper.getSqlSelect());
+		service.selectLongs(wrapper, "age");
+		assertEquals("id, email", wrapper.getSqlSelect());
+		assertEquals(Long.valueOf(1), service.selectList(wrapper).get(0).getId());
+	}
+
+	@Test
+	public void selectLongsAndDoublesSkipNulls() {
+		Wrapper<TestUser> wrapper = new EntityWrapper<TestUser>().orderBy("id");
+		assertArrayEquals(new long[] { 1, 2, 3, 4, 5 }, service.selectLongs(wrapper, "age"));
+		assertArrayEquals(new double[] { 1.5, 3, 4.5, 6, 7.5 }, service.selectDoubles(wrapper, "age * 1.5"), 1e-9);
+		assertArrayEquals(new long[0], service.selectLongs(new EntityWrapper<TestUser>().eq("id", 6), "age"));
+		assertNull(wrapper.getSqlSelect());
+	}
+
+	@Test(expected = MybatisPlusException.class)
+	public void rejectsNonNumericColumn() {
+		service.selectLongs(new EntityWrapper<TestUser>(), "name");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsEmptyColumns() {
+		service.selectColumns(new EntityWrapper<TestUser>());
+	}
+
+	private static Object value(Map<String, Object> row, String column) {
+		for (Map.Entry<String, Object> entry : row.entrySet()) {
+			if (entry.getKey().equalsIgnoreCase(column)) {
+				return entry.getValue();
+			}
+		}
+		throw new AssertionError("missing column " + column + " in " + row.keySet());
+	}
+
+	public static class NameAge {
+
+		private String name;
+
+		private Integer age;
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public Integer getAge() {
+			return age;
+		}
+
+		public void setAge(Integer age) {
+			this.age = age;
+		}
+	}
+
+}
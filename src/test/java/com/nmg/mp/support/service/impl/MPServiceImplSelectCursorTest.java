@@ -0,0 +1,51 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+import org.apache.ibatis.cursor.Cursor;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.mapper.EntityWrapper;
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+import com.nmg.mp.support.metrics.OperationStats;
+import com.nmg.mp.support.metrics.SimpleMetricsRegistry;
+
+/**
+ * 类MPServiceImplSelectCursorTest.java的实现描述：游标查询的指标
+ */
+public class MPServiceImplSelectCursorTest {
+
+	private TestUserService service;
+
+	private SimpleMetricsRegistry registry;
+
+	@Before
+	public void setUp() throws Exception {
+		service = new H2TestSupport().getService();
+		service.insertBatchValues(H2TestSupport.users(1, 10));
+		registry = new SimpleMetricsRegistry();
+		service.setMetricsRegistry(registry);
+	}
+
+	@Test
+	public void recordsRowsReadOnClose() throws Exception {
+		int read = 0;
+		try (Cursor<TestUser> cursor = service.selectCursor(new EntityWrapper<TestUser>().lt("id", 8), 2)) {
+			assertNull(registry.getStats(TestUser.class, "selectCursor"));
+			for (TestUser user : cursor) {
+				if (++read == 5) {
+					break;
+				}
+			}
+		}
+		OperationStats stats = registry.getStats(TestUser.class, "selectCursor");
+		assertEquals(1, stats.getCount());
+		assertEquals(0, stats.getErrorCount());
+		assertEquals(5, stats.getRows());
+	}
+
+}
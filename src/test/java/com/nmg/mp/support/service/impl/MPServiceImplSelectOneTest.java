@@ -0,0 +1,67 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.mapper.EntityWrapper;
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+
+/**
+ * 类MPServiceImplSelectOneTest.java的实现描述：selectOne、selectFirst 及 exists 的行数限制
+ */
+public class MPServiceImplSelectOneTest {
+
+	private TestUserService service;
+
+	@Before
+	public void setUp() throws Exception {
+		service = new H2TestSupport().getService();
+		service.insertBatchValues(H2TestSupport.users(1, 25));
+	}
+
+	@Test
+	public void selectOneReturnsSingleRow() {
+		assertEquals(Long.valueOf(7), service.selectOne(new EntityWrapper<TestUser>().eq("id", 7)).getId());
+	}
+
+	@Test
+	public void selectOneReturnsFirstOfMultipleRows() {
+		// 多条结果时记录警告并返回第一条
+		TestUser user = service.selectOne(new EntityWrapper<TestUser>().eq("age", 3).orderBy("id", false));
+		assertEquals(Long.valueOf(23), user.getId());
+	}
+
+	@Test
+	public void selectOneReturnsNullWhenEmpty() {
+		assertNull(service.selectOne(new EntityWrapper<TestUser>().eq("id", 99)));
+	}
+
+	@Test
+	public void selectOneKeepsCallerLimit() {
+		TestUser user = service.selectOne(new EntityWrapper<TestUser>().orderBy("id").last("LIMIT 1"));
+		assertEquals(Long.valueOf(1), user.getId());
+	}
+
+	@Test
+	public void selectFirstReturnsFirstRow() {
+		assertEquals(Long.valueOf(25), service.selectFirst(new EntityWrapper<TestUser>().orderBy("id", false)).getId());
+		assertEquals(Long.valueOf(2),
+				service.selectFirst(new EntityWrapper<TestUser>().ge("id", 2).orderBy("id").last("LIMIT 1")).getId());
+		assertNull(service.selectFirst(new EntityWrapper<TestUser>().eq("id", 99)));
+	}
+
+	@Test
+	public void exists() {
+		assertTrue(service.exists(new EntityWrapper<TestUser>().eq("age", 3)));
+		assertFalse(service.exists(new EntityWrapper<TestUser>().eq("id", 99)));
+		assertTrue(service.exists(new EntityWrapper<TestUser>().eq("age", 3).last("LIMIT 1")));
+	}
+
+}
@@ -0,0 +1,96 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.mapper.EntityWrapper;
+import com.baomidou.mybatisplus.mapper.Wrapper;
+import com.baomidou.mybatisplus.plugins.Page;
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+
+/**
+ * 类MPServiceImplSelectPageDeferredTest.java的实现描述：先查主键再查实体的延迟关联翻页
+ */
+public class MPServiceImplSelectPageDeferredTest {
+
+	private TestUserService service;
+
+	@Before
+	public void setUp() throws Exception {
+		service = new H2TestSupport().getService();
+		service.insertBatchValues(H2TestSupport.users(1, 25));
+	}
+
+	@Test
+	public void deepPageKeepsSortAndTotal() {
+		Page<TestUser> page = new Page<>(3, 5);
+		page.setDescs(Collections.singletonList("id"));
+		Wrapper<TestUser> wrapper = new EntityWrapper<TestUser>().gt("age", 0);
+		service.selectPageDeferred(page, wrapper);
+		// age 为 0 的 10、20 被排除
+		assertEquals(23, page.getTotal());
+		assertEquals(Arrays.asList(14L, 13L, 12L, 11L, 9L), ids(page.getRecords()));
+		assertEquals("user14", page.getRecords().get(0).getName());
+		assertEquals(Integer.valueOf(4), page.getRecords().get(0).getAge());
+		assertNull(wrapper.getSqlSelect());
+	}
+
+	@Test
+	public void emptyPage() {
+		Page<TestUser> page = new Page<>(10, 5);
+		service.selectPageDeferred(page, new EntityWrapper<TestUser>());
+		assertEquals(25, page.getTotal());
+		assertEquals(0, page.getRecords().size());
+	}
+
+	@Test
+	public void callerSqlSelectFallsBackToPlainPaging() {
+		Page<TestUser> page = new Page<>(1, 3);
+		Wrapper<TestUser> wrapper = new EntityWrapper<TestUser>().setSqlSelect("id,name").orderBy("id");
+		service.selectPageDeferred(page, wrapper);
+		assertEquals(Arrays.asList(1L, 2L, 3L), ids(page.getRecords()));
+		assertNull(page.getRecords().get(0).getAge());
+		assertEquals("id,name", wrapper.getSqlSelect());
+	}
+
+	@Test
+	public void selectPageUsesDeferredJoinWhenEnabled() {
+		service.setDeferredJoinPage(true);
+		Page<TestUser> page = new Page<>(2, 4);
+		page.setAscs(Collections.singletonList("age"));
+		service.selectPage(page, new EntityWrapper<TestUser>().lt("id", 10).orderBy("id"));
+		assertEquals(9, page.getTotal());
+		assertEquals(Arrays.asList(5L, 6L, 7L, 8L), ids(page.getRecords()));
+	}
+
+	@Test
+	public void restoresSqlSelectOnFailure() {
+		Wrapper<TestUser> wrapper = new EntityWrapper<TestUser>().eq("no_such_column", 1);
+		try {
+			service.selectPageDeferred(new Page<TestUser>(1, 5), wrapper);
+			fail();
+		} catch (RuntimeException e) {
+			assertNull(wrapper.getSqlSelect());
+		}
+	}
+
+	private static List<Long> ids(List<TestUser> users) {
+		List<Long> ids = new ArrayList<>();
+		for (TestUser user : users) {
+			ids.add(user.getId());
+		}
+		return ids;
+	}
+
+}
@@ -0,0 +1,103 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.mapper.EntityWrapper;
+import com.baomidou.mybatisplus.plugins.Page;
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+
+/**
+ * 类MPServiceImplSelectPageTest.java的实现描述：并行、缓存总数及探测下一页的分页查询
+ */
+public class MPServiceImplSelectPageTest {
+
+	private TestUserService service;
+
+	@Before
+	public void setUp() throws Exception {
+		service = new H2TestSupport().getService();
+		service.insertBatchValues(H2TestSupport.users(1, 25));
+	}
+
+	@Test
+	public void parallelCountKeepsPageSort() {
+		service.setParallelPageCount(true);
+		assertSortedPage(service.selectPage(sortedPage(), new EntityWrapper<TestUser>()));
+	}
+
+	@Test
+	public void cachedCountKeepsPageSort() {
+		service.setPageCountCache(1, TimeUnit.MINUTES);
+		assertSortedPage(service.selectPage(sortedPage(), new EntityWrapper<TestUser>()));
+		// 第二次命中缓存的总数
+		assertSortedPage(service.selectPage(sortedPage(), new EntityWrapper<TestUser>()));
+	}
+
+	@Test
+	public void withoutSearchCountTotalIsZero() {
+		Page<TestUser> page = new Page<>(2, 5);
+		page.setSearchCount(false);
+		service.selectPage(page, new EntityWrapper<TestUser>());
+		assertEquals(5, page.getRecords().size());
+		assertEquals(0, page.getTotal());
+	}
+
+	@Test
+	public void probeDetectsNextPage() {
+		service.setPageCountProbe(true);
+		Page<TestUser> page = sortedPage(2);
+		page.setSearchCount(false);
+		service.selectPage(page, new EntityWrapper<TestUser>());
+		assertEquals(ids(20, 16), idsOf(page));
+		assertTrue(page.hasNext());
+		page = sortedPage(5);
+		page.setSearchCount(false);
+		service.selectPage(page, new EntityWrapper<TestUser>());
+		assertEquals(ids(5, 1), idsOf(page));
+		assertFalse(page.hasNext());
+	}
+
+	private static Page<TestUser> sortedPage() {
+		return sortedPage(2);
+	}
+
+	private static Page<TestUser> sortedPage(int current) {
+		Page<TestUser> page = new Page<>(current, 5);
+		page.setDescs(Collections.singletonList("id"));
+		return page;
+	}
+
+	private static void assertSortedPage(Page<TestUser> page) {
+		assertEquals(25, page.getTotal());
+		assertEquals(ids(20, 16), idsOf(page));
+	}
+
+	private static List<Long> ids(long from, long to) {
+		List<Long> ids = new ArrayList<>();
+		for (long id = from; id >= to; id--) {
+			ids.add(id);
+		}
+		return ids;
+	}
+
+	private static List<Long> idsOf(Page<TestUser> page) {
+		List<Long> ids = new ArrayList<>();
+		for (TestUser user : page.getRecords()) {
+			ids.add(user.getId());
+		}
+		return ids;
+	}
+
+}
@@ -0,0 +1,105 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.mapper.EntityWrapper;
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserService;
+import com.nmg.mp.support.service.ModShardStrategy;
+
+/**
+ * 类MPShardedServiceImplTest.java的实现描述：两个 H2 分片上的路由及分散-汇总查询
+ */
+public class MPShardedServiceImplTest {
+
+	private H2TestSupport shard0;
+
+	private H2TestSupport shard1;
+
+	private MPShardedServiceImpl<TestUser> service;
+
+	@Before
+	public void setUp() throws Exception {
+		shard0 = new H2TestSupport();
+		shard1 = new H2TestSupport();
+		List<TestUserService> shards = Arrays.asList(shard0.getService(), shard1.getService());
+		service = new MPShardedServiceImpl<>(TestUser.class, shards, new ModShardStrategy<TestUser>("id", true));
+		for (TestUser user : H2TestSupport.users(1, 10)) {
+			assertTrue(service.insert(user));
+		}
+	}
+
+	@Test
+	public void routesByKey() throws Exception {
+		assertEquals(5, shard0.count("SELECT COUNT(*) FROM t_user WHERE MOD(id, 2) = 0"));
+		assertEquals(5, shard1.count("SELECT COUNT(*) FROM t_user WHERE MOD(id, 2) = 1"));
+		assertEquals(10, shard0.count("SELECT COUNT(*) FROM t_user") + shard1.count("SELECT COUNT(*) FROM t_user"));
+		assertEquals(Long.valueOf(3), service.selectById(3L).getId());
+		assertNull(service.selectById(11L));
+	}
+
+	@Test
+	public void selectBatchIdsKeepsCallerOrder() {
+		assertEquals(Arrays.asList(7L, 2L, 9L, 4L), ids(service.selectBatchIds(Arrays.asList(7L, 2L, 99L, 9L, 4L))));
+	}
+
+	@Test
+	public void gathersInShardOrder() {
+		List<TestUser> users = service.selectList(new EntityWrapper<TestUser>().lt("id", 6).orderBy("id"));
+		assertEquals(Arrays.asList(2L, 4L, 1L, 3L, 5L), ids(users));
+	}
+
+	@Test
+	public void sumsCounts() {
+		assertEquals(10, service.selectCount(new EntityWrapper<TestUser>()));
+		assertEquals(2, service.selectCount(new EntityWrapper<TestUser>().eq("age", 3).or().eq("age", 4)));
+	}
+
+	@Test
+	public void defaultExecutorRejectsInsteadOfRunningOnCaller() {
+		ExecutorService executor = service.getExecutor();
+		assertTrue(((ThreadPoolExecutor) executor).getRejectedExecutionHandler() instanceof ThreadPoolExecutor.AbortPolicy);
+	}
+
+	@Test
+	public void rejectionFailsOperation() {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		executor.shutdown();
+		MPShardedServiceImpl<TestUser> rejecting = new MPShardedServiceImpl<>(TestUser.class,
+				Arrays.asList(shard0.getService(), shard1.getService()), new ModShardStrategy<TestUser>("id", true),
+				executor);
+		try {
+			rejecting.selectCount(new EntityWrapper<TestUser>());
+			fail();
+		} catch (MybatisPlusException e) {
+			assertTrue(e.getCause() instanceof RejectedExecutionException);
+		}
+		// 只涉及一个分片时在调用线程执行
+		assertEquals(Long.valueOf(4), rejecting.selectById(4L).getId());
+	}
+
+	private static List<Long> ids(List<TestUser> users) {
+		List<Long> ids = new ArrayList<>();
+		for (TestUser user : users) {
+			ids.add(user.getId());
+		}
+		return ids;
+	}
+
+}
@@ -0,0 +1,174 @@
+package com.nmg.mp.support.service.impl;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
+import com.nmg.mp.support.H2TestSupport;
+import com.nmg.mp.support.TestUser;
+import com.nmg.mp.support.TestUserMapper;
+
+/**
+ * 类SelectByIdCoalescerTest.java的实现描述：并发 selectById 的合并、结果拷贝、失败传递及等待超时
+ */
+public class SelectByIdCoalescerTest {
+
+	private CountingService service;
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() throws Exception {
+		H2TestSupport h2 = new H2TestSupport();
+		h2.getService().insertBatchValues(H2TestSupport.users(1, 10));
+		service = new CountingService(h2.getService().baseMapper);
+		executor = Executors.newCachedThreadPool();
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void coalescesConcurrentCallsIntoOneQuery() throws Exception {
+		SelectByIdCoalescer<TestUser> coalescer = new SelectByIdCoalescer<>(service, 300, TimeUnit.MILLISECONDS, 100,
+				10, TimeUnit.SECONDS);
+		List<Future<TestUser>> futures = selectConcurrently(coalescer, 1L, 2L, 3L, 1L, 2L, 3L, 4L, 4L);
+		long[] expected = { 1, 2, 3, 1, 2, 3, 4, 4 };
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(Long.valueOf(expected[i]), futures.get(i).get(5, TimeUnit.SECONDS).getId());
+		}
+		assertEquals(1, service.calls.get());
+		assertEquals(4, new HashSet<>(service.lastIds).size());
+	}
+
+	@Test
+	public void callersDoNotShareEntities() throws Exception {
+		SelectByIdCoalescer<TestUser> coalescer = new SelectByIdCoalescer<>(service, 300, TimeUnit.MILLISECONDS, 100,
+				10, TimeUnit.SECONDS);
+		List<Future<TestUser>> futures = selectConcurrently(coalescer, 5L, 5L, 5L);
+		List<TestUser> users = new ArrayList<>();
+		for (Future<TestUser> future : futures) {
+			users.add(future.get(5, TimeUnit.SECONDS));
+		}
+		assertEquals(1, service.calls.get());
+		for (int i = 0; i < users.size(); i++) {
+			assertEquals("user5", users.get(i).getName());
+			for (int j = i + 1; j < users.size(); j++) {
+				assertNotSame(users.get(i), users.get(j));
+			}
+		}
+	}
+
+	@Test
+	public void leaderFailureReachesEveryCaller() throws Exception {
+		service.failure = new IllegalStateException("connection reset");
+		SelectByIdCoalescer<TestUser> coalescer = new SelectByIdCoalescer<>(service, 300, TimeUnit.MILLISECONDS, 100,
+				10, TimeUnit.SECONDS);
+		for (Future<TestUser> future : selectConcurrently(coalescer, 1L, 2L, 3L)) {
+			try {
+				future.get(5, TimeUnit.SECONDS);
+				fail();
+			} catch (ExecutionException e) {
+				assertTrue(e.getCause() instanceof MybatisPlusException);
+				assertEquals(service.failure, e.getCause().getCause());
+			}
+		}
+		assertEquals(1, service.calls.get());
+	}
+
+	@Test
+	public void stalledLeaderFallsBackToDirectQuery() throws Exception {
+		service.stall = new CountDownLatch(1);
+		final SelectByIdCoalescer<TestUser> coalescer = new SelectByIdCoalescer<>(service, 100, TimeUnit.MILLISECONDS,
+				100, 200, TimeUnit.MILLISECONDS);
+		Future<TestUser> leader = executor.submit(new Callable<TestUser>() {
+
+			@Override
+			public TestUser call() {
+				return coalescer.selectById(1L);
+			}
+		});
+		Thread.sleep(20);
+		// leader 的查询挂起，等待超时后直接查询
+		assertEquals(Long.valueOf(2), coalescer.selectById(2L).getId());
+		assertEquals(2, service.calls.get());
+		service.stall.countDown();
+		assertEquals(Long.valueOf(1), leader.get(5, TimeUnit.SECONDS).getId());
+	}
+
+	private List<Future<TestUser>> selectConcurrently(final SelectByIdCoalescer<TestUser> coalescer,
+			Long... ids) {
+		final CyclicBarrier barrier = new CyclicBarrier(ids.length);
+		List<Future<TestUser>> futures = new ArrayList<>(ids.length);
+		for (final Long id : ids) {
+			futures.add(executor.submit(new Callable<TestUser>() {
+
+				@Override
+				public TestUser call() throws Exception {
+					barrier.await();
+					return coalescer.selectById(id);
+				}
+			}));
+		}
+		return futures;
+	}
+
+	/**
+	 * 记录批量查询次数，可模拟失败及首次查询挂起
+	 */
+	private static class CountingService extends MPServiceImpl<TestUserMapper, TestUser> {
+
+		private final AtomicInteger calls = new AtomicInteger();
+
+		private volatile List<Serializable> lastIds;
+
+		private volatile RuntimeException failure;
+
+		private volatile CountDownLatch stall;
+
+		CountingService(TestUserMapper baseMapper) {
+			this.baseMapper = baseMapper;
+		}
+
+		@Override
+		List<TestUser> loadBatchIds(List<Serializable> idList) {
+			lastIds = idList;
+			if (calls.incrementAndGet() == 1) {
+				if (null != failure) {
+					throw failure;
+				}
+				if (null != stall) {
+					try {
+						stall.await(5, TimeUnit.SECONDS);
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+					}
+				}
+			}
+			return super.loadBatchIds(idList);
+		}
+	}
+
+}
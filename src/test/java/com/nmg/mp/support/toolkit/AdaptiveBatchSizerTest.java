@@ -0,0 +1,69 @@
+package com.nmg.mp.support.toolkit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * 类AdaptiveBatchSizerTest.java的实现描述：按耗时及数据量调整批量大小
+ */
+public class AdaptiveBatchSizerTest {
+
+	private static final long MILLIS = TimeUnit.MILLISECONDS.toNanos(1);
+
+	private AdaptiveBatchSizer sizer;
+
+	@Before
+	public void setUp() {
+		sizer = new AdaptiveBatchSizer(100, TimeUnit.MILLISECONDS, 1, 10000);
+		sizer.setInitialBatchSize(100);
+	}
+
+	@Test
+	public void growsAtMostTwofold() {
+		// 按耗时应增至 1000，单次最多一倍
+		assertEquals(200, sizer.adjust(String.class, 100, 10 * MILLIS, 0));
+		assertEquals(200, sizer.batchSize(String.class));
+	}
+
+	@Test
+	public void shrinksAtMostByHalf() {
+		// 按耗时应降至 10，单次最多减半
+		assertEquals(50, sizer.adjust(String.class, 100, 1000 * MILLIS, 0));
+	}
+
+	@Test
+	public void followsTargetWithinStepBounds() {
+		assertEquals(125, sizer.adjust(String.class, 100, 80 * MILLIS, 0));
+	}
+
+	@Test
+	public void capsByPayload() {
+		sizer.setMaxPayloadBytes(1000);
+		// 每行 20 字节，最多 50 行，数据量上限不受单次调整幅度限制
+		assertEquals(50, sizer.adjust(String.class, 100, 10 * MILLIS, 2000));
+		sizer.setMaxPayloadBytes(0);
+		assertEquals(100, sizer.adjust(String.class, 50, 10 * MILLIS, 1000000));
+	}
+
+	@Test
+	public void ignoresShortBatches() {
+		assertEquals(100, sizer.adjust(String.class, 49, 1000 * MILLIS, 0));
+		assertEquals(100, sizer.batchSize(String.class));
+	}
+
+	@Test
+	public void clampsToRangePerEntityClass() {
+		AdaptiveBatchSizer bounded = new AdaptiveBatchSizer(100, TimeUnit.MILLISECONDS, 80, 150);
+		bounded.setInitialBatchSize(100);
+		assertEquals(150, bounded.adjust(String.class, 100, MILLIS, 0));
+		assertEquals(80, bounded.adjust(Integer.class, 100, 1000 * MILLIS, 0));
+		assertEquals(150, bounded.batchSize(String.class));
+		bounded.reset();
+		assertEquals(100, bounded.batchSize(String.class));
+	}
+
+}
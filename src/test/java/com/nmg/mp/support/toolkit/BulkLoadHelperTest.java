@@ -0,0 +1,137 @@
+package com.nmg.mp.support.toolkit;
+
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.session.Configuration;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
+
+/**
+ * 类BulkLoadHelperTest.java的实现描述：批量导入的文本行编码
+ */
+public class BulkLoadHelperTest {
+
+	private static final List<String> PROPERTIES = Arrays.asList("text", "flag", "amount", "data");
+
+	@Test
+	public void escapesSpecialCharacters() throws IOException {
+		Row row = new Row("a\\b\tc\nd\re", null, new BigDecimal("1E+3"), null);
+		assertEquals("a\\\\b\\tc\\nd\\re\t\\N\t1000\t\\N\n", read(false, row));
+	}
+
+	@Test
+	public void encodesNullsAsBackslashN() throws IOException {
+		assertEquals("\\N\t\\N\t\\N\t\\N\n\\N\t\\N\t\\N\t\\N\n", read(true, new Row(), new Row()));
+	}
+
+	@Test
+	public void encodesBooleansPerDatabase() throws IOException {
+		Row yes = new Row("x", Boolean.TRUE, null, null);
+		Row no = new Row("y", Boolean.FALSE, null, null);
+		assertEquals("x\t1\t\\N\t\\N\ny\t0\t\\N\t\\N\n", read(false, yes, no));
+		assertEquals("x\tt\t\\N\t\\N\ny\tf\t\\N\t\\N\n", read(true, yes, no));
+	}
+
+	@Test
+	public void encodesByteaAsEscapedHex() throws IOException {
+		Row row = new Row(null, null, null, new byte[] { 0x00, 0x1f, (byte) 0xab });
+		assertEquals("\\N\t\\N\t\\N\t\\\\x001fab\n", read(true, row));
+	}
+
+	@Test(expected = MybatisPlusException.class)
+	public void rejectsBinaryOnMysql() throws IOException {
+		read(false, new Row(null, null, null, new byte[] { 1 }));
+	}
+
+	@Test
+	public void preparesEachRowBeforeEncoding() throws IOException {
+		BulkLoadHelper.RowPreparer preparer = new BulkLoadHelper.RowPreparer() {
+
+			@Override
+			public void prepare(MetaObject metaObject) {
+				metaObject.setValue("text", "prepared");
+			}
+		};
+		InputStream in = new BulkLoadHelper.RowInputStream(new Configuration(), PROPERTIES,
+				Arrays.asList(new Row()).iterator(), preparer, false);
+		assertEquals("prepared\t\\N\t\\N\t\\N\n", readAll(in));
+	}
+
+	private static String read(boolean postgres, Row... rows) throws IOException {
+		return readAll(new BulkLoadHelper.RowInputStream(new Configuration(), PROPERTIES, Arrays.asList(rows).iterator(),
+				null, postgres));
+	}
+
+	private static String readAll(InputStream in) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		// 小缓冲区覆盖跨行读取
+		byte[] buffer = new byte[3];
+		for (int n; (n = in.read(buffer)) != -1;) {
+			out.write(buffer, 0, n);
+		}
+		return new String(out.toByteArray(), "UTF-8");
+	}
+
+	public static class Row {
+
+		private String text;
+
+		private Boolean flag;
+
+		private BigDecimal amount;
+
+		private byte[] data;
+
+		public Row() {
+		}
+
+		Row(String text, Boolean flag, BigDecimal amount, byte[] data) {
+			this.text = text;
+			this.flag = flag;
+			this.amount = amount;
+			this.data = data;
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		public void setText(String text) {
+			this.text = text;
+		}
+
+		public Boolean getFlag() {
+			return flag;
+		}
+
+		public void setFlag(Boolean flag) {
+			this.flag = flag;
+		}
+
+		public BigDecimal getAmount() {
+			return amount;
+		}
+
+		public void setAmount(BigDecimal amount) {
+			this.amount = amount;
+		}
+
+		public byte[] getData() {
+			return data;
+		}
+
+		public void setData(byte[] data) {
+			this.data = data;
+		}
+	}
+
+}
@@ -0,0 +1,68 @@
+package com.nmg.mp.support.toolkit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+import org.springframework.util.concurrent.ListenableFutureTask;
+
+/**
+ * 类ConcurrencyLimitedExecutorTest.java的实现描述：并发限制及中断
+ */
+public class ConcurrencyLimitedExecutorTest {
+
+	@Test
+	public void interruptWhileWaitingCancelsFuture() throws Exception {
+		ConcurrencyLimitedExecutor executor = new ConcurrencyLimitedExecutor(Executors.newCachedThreadPool(), 1);
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+		Future<?> running = executor.submit(new Runnable() {
+
+			@Override
+			public void run() {
+				started.countDown();
+				// 忽略中断，保证许可在等待任务被取消后才释放
+				while (true) {
+					try {
+						release.await();
+						return;
+					} catch (InterruptedException e) {
+						// 继续等待
+					}
+				}
+			}
+		});
+		assertTrue(started.await(5, TimeUnit.SECONDS));
+		ListenableFutureTask<String> waiting = new ListenableFutureTask<>(new Callable<String>() {
+
+			@Override
+			public String call() {
+				return "executed";
+			}
+		});
+		executor.execute(waiting);
+		// 等待任务进入许可等待
+		Thread.sleep(100);
+		assertEquals(0, executor.availablePermits());
+		executor.shutdownNow();
+		try {
+			waiting.get(5, TimeUnit.SECONDS);
+			fail();
+		} catch (CancellationException e) {
+			assertTrue(waiting.isCancelled());
+		}
+		release.countDown();
+		running.get(5, TimeUnit.SECONDS);
+		assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+		assertEquals(1, executor.availablePermits());
+	}
+
+}
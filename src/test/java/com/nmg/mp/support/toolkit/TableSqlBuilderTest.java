@@ -0,0 +1,205 @@
+package com.nmg.mp.support.toolkit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Date;
+
+import org.apache.ibatis.builder.MapperBuilderAssistant;
+import org.junit.BeforeClass;
+import org.junit.Test;
+
+import com.baomidou.mybatisplus.MybatisConfiguration;
+import com.baomidou.mybatisplus.annotations.TableField;
+import com.baomidou.mybatisplus.annotations.TableId;
+import com.baomidou.mybatisplus.annotations.TableName;
+import com.baomidou.mybatisplus.entity.GlobalConfiguration;
+import com.baomidou.mybatisplus.entity.TableInfo;
+import com.baomidou.mybatisplus.enums.IdType;
+import com.baomidou.mybatisplus.exceptions.MybatisPlusException;
+import com.baomidou.mybatisplus.toolkit.GlobalConfigUtils;
+import com.baomidou.mybatisplus.toolkit.TableInfoHelper;
+import com.nmg.mp.generator.config.rules.DbType;
+
+/**
+ * 类TableSqlBuilderTest.java的实现描述：upsert 语句拼装
+ */
+public class TableSqlBuilderTest {
+
+	private static TableInfo user;
+
+	private static TableInfo autoUser;
+
+	private static TableInfo counterUser;
+
+	@BeforeClass
+	public static void initTableInfo() {
+		MybatisConfiguration configuration = new MybatisConfiguration();
+		GlobalConfiguration globalConfig = new GlobalConfiguration();
+		globalConfig.setDbType("h2");
+		GlobalConfigUtils.setGlobalConfig(configuration, globalConfig);
+		user = TableInfoHelper.initTableInfo(new MapperBuilderAssistant(configuration, "InputUser"),
+				InputUser.class);
+		autoUser = TableInfoHelper.initTableInfo(new MapperBuilderAssistant(configuration, "AutoUser"),
+				AutoUser.class);
+		counterUser = TableInfoHelper.initTableInfo(new MapperBuilderAssistant(configuration, "CounterUser"),
+				CounterUser.class);
+	}
+
+	@Test
+	public void oracleMergeSetsJdbcType() {
+		String sql = TableSqlBuilder.upsertValues(DbType.ORACLE, user, Long.class, 1);
+		assertTrue(sql, sql.contains("#{list[0].id,jdbcType=NUMERIC} id"));
+		assertTrue(sql, sql.contains("#{list[0].name,jdbcType=VARCHAR} name"));
+		assertTrue(sql, sql.contains("#{list[0].age,jdbcType=NUMERIC} age"));
+		assertTrue(sql, sql.contains("#{list[0].birthday,jdbcType=TIMESTAMP} birthday"));
+	}
+
+	@Test
+	public void mergeOmitsAutoKeyFromInsert() {
+		String sql = TableSqlBuilder.upsertValues(DbType.SQL_SERVER, autoUser, Long.class, 2);
+		assertTrue(sql, sql.contains("WHEN NOT MATCHED THEN INSERT (name) VALUES (S.name)"));
+		sql = TableSqlBuilder.upsertValues(DbType.ORACLE, autoUser, Long.class, 1);
+		assertTrue(sql, sql.contains("WHEN NOT MATCHED THEN INSERT (name) VALUES (S.name)"));
+		assertFalse(sql, sql.contains("INSERT (id"));
+	}
+
+	@Test
+	public void mergeInsertsInputKey() {
+		String sql = TableSqlBuilder.upsertValues(DbType.SQL_SERVER, user, Long.class, 1);
+		assertTrue(sql, sql.contains("WHEN NOT MATCHED THEN INSERT (id,name,age,birthday) VALUES (S.id,S.name,S.age,S.birthday)"));
+	}
+
+	@Test(expected = MybatisPlusException.class)
+	public void postgreRejectsAutoKey() {
+		TableSqlBuilder.upsertValues(DbType.POSTGRE_SQL, autoUser, Long.class, 1);
+	}
+
+	@Test
+	public void mysqlKeepsAutoKeyColumn() {
+		String sql = TableSqlBuilder.upsertValues(DbType.MYSQL, autoUser, Long.class, 1);
+		assertEquals("INSERT INTO t_auto_user (id,name) VALUES (#{list[0].id},#{list[0].name})"
+				+ " ON DUPLICATE KEY UPDATE name=VALUES(name)", sql);
+	}
+
+	@Test
+	public void upsertUsesUpdateExpression() {
+		String sql = TableSqlBuilder.upsertValues(DbType.MYSQL, counterUser, Long.class, 1);
+		assertTrue(sql, sql.endsWith(" ON DUPLICATE KEY UPDATE name=VALUES(name),hits=hits+1"));
+		sql = TableSqlBuilder.upsertValues(DbType.POSTGRE_SQL, counterUser, Long.class, 1);
+		assertTrue(sql, sql.endsWith(" DO UPDATE SET name=EXCLUDED.name,hits=hits+1"));
+		sql = TableSqlBuilder.upsertValues(DbType.SQL_SERVER, counterUser, Long.class, 1);
+		assertTrue(sql, sql.contains("WHEN MATCHED THEN UPDATE SET T.name = S.name,T.hits = T.hits+1 WHEN NOT MATCHED"));
+	}
+
+	@TableName("t_input_user")
+	public static class InputUser {
+
+		@TableId(value = "id", type = IdType.INPUT)
+		private Long id;
+
+		private String name;
+
+		private Integer age;
+
+		private Date birthday;
+
+		public Long getId() {
+			return id;
+		}
+
+		public void setId(Long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public Integer getAge() {
+			return age;
+		}
+
+		public void setAge(Integer age) {
+			this.age = age;
+		}
+
+		public Date getBirthday() {
+			return birthday;
+		}
+
+		public void setBirthday(Date birthday) {
+			this.birthday = birthday;
+		}
+
+	}
+
+	@TableName("t_auto_user")
+	public static class AutoUser {
+
+		@TableId(value = "id", type = IdType.AUTO)
+		private Long id;
+
+		private String name;
+
+		public Long getId() {
+			return id;
+		}
+
+		public void setId(Long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+	}
+
+	@TableName("t_counter_user")
+	public static class CounterUser {
+
+		@TableId(value = "id", type = IdType.INPUT)
+		private Long id;
+
+		private String name;
+
+		@TableField(update = "%s+1")
+		private Integer hits;
+
+		public Long getId() {
+			return id;
+		}
+
+		public void setId(Long id) {
+			this.id = id;
+		}
+
+		public String getName() {
+			return name;
+		}
+
+		public void setName(String name) {
+			this.name = name;
+		}
+
+		public Integer getHits() {
+			return hits;
+		}
+
+		public void setHits(Integer hits) {
+			this.hits = hits;
+		}
+
+	}
+
+}